@@ -19,34 +19,229 @@
 
 package bot;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.stream.Collectors;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import bot.action.Assessment;
+import bot.action.BatchAssessment;
+import bot.blocklist.Blocklist;
 import bot.checkpoint.AbstractCheck;
+import bot.checkpoint.BlocklistCheck;
+import bot.checkpoint.CheckLoader;
+import bot.checkpoint.CheckReloader;
+import bot.checkpoint.CheckSet;
 import bot.checkpoint.ExampleCheck1;
 import bot.checkpoint.ExampleCheck2;
+import bot.data.RecordBatch;
+import bot.tuning.ThresholdTuner;
 
 /**
  * bot.BotStarter
  *
  * Main class. Checkpoints should be initialized here.
  * Also the assessment is created and returned here.
+ *
+ * When the bot.checkDir system property is set, the checks are loaded from
+ * that plugin directory instead (see CheckLoader) and reloaded whenever it
+ * changes, without restarting the bot.
+ *
+ * When the bot.blocklistDir system property is set, a BlocklistCheck is
+ * added for every field in BLOCKLIST_FIELDS that has a "field.blocklist"
+ * file in that directory, after the default or loaded checks.
  * 
  * @author Jim van Eeden - jim@riddles.io
  */
 
 public class Bot {
 
-    private ArrayList<AbstractCheck> checks;
+    private static final Logger log = Logger.getLogger(Bot.class.getSimpleName());
+
+    private static final long TUNING_INTERVAL = 1000;  // ms
+    private static final String[] BLOCKLIST_FIELDS = {"cardid", "emailid", "shopperipid"};
+
+    private AtomicReference<CheckSet> checks;
+    private ConcurrentLinkedQueue<CheckSet> retiredChecks;
+    private ThresholdTuner tuner;
+    private boolean backgroundTuning;
+    private LinkedHashMap<String, Blocklist> blocklists;
+    private volatile int maxCheckpoints = CheckSet.MAX_CHECKS;  // Until the engine sends it
 
     public Bot() {
-        this.checks = new ArrayList<>();
+        this(true);
+    }
+
+    /**
+     * Creates the bot.
+     * @param backgroundTuning True to tune the check thresholds on a timer in
+     *                         the background, false to tune them after every
+     *                         batch in getAssessments() instead, which gives
+     *                         the same results for the same input
+     */
+    public Bot(boolean backgroundTuning) {
+        String checkDir = System.getProperty("bot.checkDir");
+
+        this.blocklists = mapBlocklists(System.getProperty("bot.blocklistDir"));
+        this.retiredChecks = new ConcurrentLinkedQueue<>();
+        this.checks = new AtomicReference<>(addBlocklistChecks(checkDir == null
+                ? new CheckSet(createChecks())
+                : loadChecks(new File(checkDir))));
+
+        this.tuner = new ThresholdTuner(this.checks.get().getChecks());
+        this.backgroundTuning = backgroundTuning;
+        if (backgroundTuning) {
+            this.tuner.start(TUNING_INTERVAL);
+        }
+
+        if (checkDir != null) {
+            try {
+                new CheckReloader(new File(checkDir).toPath(), () -> this.maxCheckpoints,
+                        checkSet -> this.swapChecks(this.addBlocklistChecks(checkSet))).start();
+            } catch (IOException e) {
+                log.log(Level.WARNING, String.format("Cannot watch '%s' for changes", checkDir), e);
+            }
+        }
+    }
+
+    private static ArrayList<AbstractCheck> createChecks() {
+        ArrayList<AbstractCheck> checks = new ArrayList<>();
 
         // TODO: Change these example checks for useful ones and add more checks
-        this.checks.add(new ExampleCheck1(0)); // ID needs to start with 0
-        this.checks.add(new ExampleCheck2(1));
+        checks.add(new ExampleCheck1(0)); // ID needs to start with 0
+        checks.add(new ExampleCheck2(1));
+
+        return checks;
+    }
+
+    private static LinkedHashMap<String, Blocklist> mapBlocklists(String blocklistDir) {
+        LinkedHashMap<String, Blocklist> blocklists = new LinkedHashMap<>();
+        if (blocklistDir == null) return blocklists;
+
+        for (String field : BLOCKLIST_FIELDS) {
+            File file = new File(blocklistDir, field + ".blocklist");
+            if (!file.isFile()) continue;
+
+            try {
+                blocklists.put(field, Blocklist.map(file));
+            } catch (IOException e) {
+                log.log(Level.WARNING, String.format("Cannot map blocklist '%s'", file), e);
+            }
+        }
+
+        return blocklists;
+    }
+
+    /**
+     * Adds a BlocklistCheck for every mapped blocklist to the checks, with
+     * IDs following the highest id in the set.
+     * @param checkSet The default or loaded checks
+     * @return The checks including the blocklist checks
+     */
+    private CheckSet addBlocklistChecks(CheckSet checkSet) {
+        if (this.blocklists.isEmpty()) return checkSet;
+
+        int id = checkSet.getChecks().stream().mapToInt(AbstractCheck::getId).max().orElse(-1) + 1;
+        ArrayList<AbstractCheck> blocklistChecks = new ArrayList<>();
+
+        for (Map.Entry<String, Blocklist> entry : this.blocklists.entrySet()) {
+            blocklistChecks.add(new BlocklistCheck(id++, entry.getKey(), entry.getValue()));
+        }
+
+        return checkSet.withChecks(blocklistChecks);
+    }
+
+    private static CheckSet loadChecks(File checkDir) {
+        try {
+            return CheckLoader.load(checkDir, CheckSet.MAX_CHECKS);
+        } catch (Exception | LinkageError e) {
+            log.log(Level.WARNING, String.format(
+                    "Cannot load checks from '%s', using the default checks", checkDir), e);
+            return new CheckSet(createChecks());
+        }
+    }
+
+    /**
+     * Replaces the current checks with reloaded ones. Called from the
+     * reloader thread; the assessment in progress keeps using the old
+     * checks and the next record uses the new ones. The reloaded checks
+     * must have the same IDs and descriptions, as the game engine only
+     * asks for them once. Rejected sets are closed right away, replaced
+     * sets by the assessment thread once it has moved on to the new ones.
+     * @param checkSet The reloaded checks
+     */
+    private void swapChecks(CheckSet checkSet) {
+        CheckSet current = this.checks.get();
+
+        try {
+            checkSet.validate(this.maxCheckpoints);
+        } catch (IllegalArgumentException e) {
+            log.warning(String.format("Reloaded checks are invalid, keeping current checks: %s", e.getMessage()));
+            closeChecks(checkSet);
+            return;
+        }
+
+        if (!current.matches(checkSet)) {
+            log.warning(String.format(
+                    "Reloaded checks %s '%s' don't match %s '%s', keeping current checks",
+                    Arrays.toString(checkSet.getIds()), checkSet.checkPointsToString(),
+                    Arrays.toString(current.getIds()), current.checkPointsToString()));
+            closeChecks(checkSet);
+            return;
+        }
+
+        this.tuner.setChecks(checkSet.getChecks());
+        this.retiredChecks.add(this.checks.getAndSet(checkSet));  // Closed by the assessment thread
+
+        log.info("Reloaded checks");
+    }
+
+    /**
+     * Gets the checks to use for the next assessment. Must only be called by
+     * the assessment thread, before it starts an assessment.
+     *
+     * Replaced check sets are closed here instead of on the reloader thread,
+     * as only this thread knows when it's done with them: every set in the
+     * queue was replaced before the current set is read below, and the
+     * previous assessment has finished, so none of them is still in use.
+     * @return The current checks
+     */
+    private CheckSet getChecksForAssessment() {
+        CheckSet retired;
+        while ((retired = this.retiredChecks.poll()) != null) {
+            closeChecks(retired);
+        }
+
+        return this.checks.get();
+    }
+
+    private static void closeChecks(CheckSet checkSet) {
+        try {
+            checkSet.close();
+        } catch (IOException e) {
+            log.log(Level.WARNING, "Cannot close replaced checks", e);
+        }
+    }
+
+    /**
+     * Sets the maximum amount of checkpoints as given by the settings.
+     * Reloaded checks with more checks than this are rejected.
+     * @param maxCheckpoints The maximum amount of checkpoints
+     */
+    public void setMaxCheckpoints(int maxCheckpoints) {
+        this.maxCheckpoints = maxCheckpoints;
+
+        try {
+            this.checks.get().validate(maxCheckpoints);
+        } catch (IllegalArgumentException e) {
+            log.warning(e.getMessage());
+        }
     }
 
     /**
@@ -58,25 +253,45 @@ public class Bot {
      */
     public Assessment getAssessment(RiskSystemState state, int timeout) {
         state.setTimebank(timeout);
+        state.setCheckParameters(this.tuner.getParameters());  // same snapshot for all checks
 
         Assessment assessment = new Assessment();
-        assessment.assessRecord(this.checks, state);
+        assessment.assessRecord(getChecksForAssessment().getChecks(), state);
 
         state.storeAssessment(assessment);
         
         return assessment;
     }
 
+    /**
+     * Assesses a whole batch of records at once, used for offline scoring
+     * and backtesting. The records and their assessments are added to the
+     * state, as in a match.
+     * Without background tuning, the thresholds are tuned after the batch.
+     * @param batch Records to assess
+     * @param state The current bot state
+     * @return Assessment of all the records in the batch
+     */
+    public BatchAssessment getAssessments(RecordBatch batch, RiskSystemState state) {
+        state.setCheckParameters(this.tuner.getParameters());
+
+        BatchAssessment assessment = new BatchAssessment();
+        assessment.assessRecords(getChecksForAssessment().getChecks(), batch, state);
+
+        if (!this.backgroundTuning) {
+            this.tuner.tune();
+        }
+
+        return assessment;
+    }
+
     /**
      * Gets the description of all the checks and transforms them
      * to the correct output for the game engine.
      * @return A string that the game engine can use to set the checkpoint descriptions
      */
     public String checkPointsToString() {
-        return this.checks.stream()
-                .sorted(Comparator.comparingInt(AbstractCheck::getId))
-                .map(AbstractCheck::getDescription)
-                .collect(Collectors.joining(";"));
+        return this.checks.get().checkPointsToString();
     }
 
     /**
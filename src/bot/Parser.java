@@ -19,6 +19,8 @@
 
 package bot;
 
+import java.io.InputStream;
+import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Scanner;
@@ -38,12 +40,18 @@ import bot.action.Assessment;
 public class Parser {
 
     private final Scanner scan;
+    private final PrintStream output;
     private final Bot bot;
 
     private RiskSystemState currentState;
 
     public Parser(Bot bot) {
-        this.scan = new Scanner(System.in);
+        this(bot, System.in, System.out);
+    }
+
+    public Parser(Bot bot, InputStream input, PrintStream output) {
+        this.scan = new Scanner(input);
+        this.output = output;
         this.bot = bot;
         this.currentState = new RiskSystemState();
     }
@@ -62,7 +70,7 @@ public class Parser {
      * Parse line gotten from the game engine
      * @param line Current line
      */
-    private void parseLine(String line) {
+    public void parseLine(String line) {
 
         if (line.length() <= 0) return;
 
@@ -82,7 +90,7 @@ public class Parser {
             case "action": // action requested
                 String output = getActionOutput(parts[1], Integer.parseInt(parts[2]));
 
-                System.out.println(output); // send the line to the engine
+                this.output.println(output); // send the line to the engine
                 break;
             default:
                 System.err.println("Unknown input");
@@ -112,7 +120,9 @@ public class Parser {
                     this.currentState.setMyName(value);
                     break;
                 case "max_checkpoints":
-                    this.currentState.setMaxCheckpoints(Integer.parseInt(value));
+                    int maxCheckpoints = Integer.parseInt(value);
+                    this.currentState.setMaxCheckpoints(maxCheckpoints);
+                    this.bot.setMaxCheckpoints(maxCheckpoints);
                     break;
                 case "record_format":
                     this.currentState.setRecordFormat(value.split(","));
@@ -23,6 +23,7 @@ import java.util.ArrayList;
 
 import bot.action.Assessment;
 import bot.data.PaymentRecord;
+import bot.tuning.CheckParameters;
 
 /**
  * bot.RiskSystemState
@@ -46,10 +47,14 @@ public class RiskSystemState {
     private ArrayList<Assessment> assessments;
     private int timebank;
     private String myName;
+    private CheckParameters checkParameters;
+    private int historyLimit;
+    private int amountDecimals = PaymentRecord.WHOLE_UNITS;
     
     public RiskSystemState() {
         this.records = new ArrayList<>();
         this.assessments = new ArrayList<>();
+        this.checkParameters = CheckParameters.EMPTY;
     }
 
     /**
@@ -67,6 +72,24 @@ public class RiskSystemState {
      */
     public void storeAssessment(Assessment assessment) {
         this.assessments.add(assessment);
+        trimHistory(this.assessments);
+    }
+
+    /**
+     * Limits how many records and assessments are kept. When a list reaches
+     * twice the limit, the oldest entries are dropped, so at least the last
+     * limit entries are always kept. By default everything is kept, as in
+     * a match; long offline runs should set a limit.
+     * @param historyLimit Amount of entries to keep at least, 0 for no limit
+     */
+    public void setHistoryLimit(int historyLimit) {
+        this.historyLimit = historyLimit;
+    }
+
+    private void trimHistory(ArrayList<?> history) {
+        if (this.historyLimit > 0 && history.size() >= 2 * this.historyLimit) {
+            history.subList(0, history.size() - this.historyLimit).clear();
+        }
     }
 
     /**
@@ -77,6 +100,22 @@ public class RiskSystemState {
         return this.timebank;
     }
 
+    /**
+     * Set the check parameters to use for assessing the current record.
+     * @param checkParameters Check parameters
+     */
+    public void setCheckParameters(CheckParameters checkParameters) {
+        this.checkParameters = checkParameters;
+    }
+
+    /**
+     * Get the check parameters to use for assessing the current record.
+     * @return Check parameters
+     */
+    public CheckParameters getCheckParameters() {
+        return this.checkParameters;
+    }
+
     /**
      * Get the bot's name as determined by the game engine.
      * @return Bot's given name
@@ -160,9 +199,32 @@ public class RiskSystemState {
         this.recordFormat = recordFormat;
     }
 
+    /**
+     * Sets how many decimals the amount field of the records implies,
+     * PaymentRecord.WHOLE_UNITS (the default, as in the game feed) or
+     * PaymentRecord.CENTS.
+     * @param amountDecimals Decimals of the amount field
+     */
+    public void setAmountDecimals(int amountDecimals) {
+        this.amountDecimals = amountDecimals;
+    }
+
+    public int getAmountDecimals() {
+        return this.amountDecimals;
+    }
+
+    /**
+     * Adds an already parsed record, which then becomes the current record.
+     * @param record The record
+     */
+    public void addRecord(PaymentRecord record) {
+        this.records.add(record);
+        trimHistory(this.records);
+    }
+
     public void addToRecords(String input) {
         try {
-            this.records.add(new PaymentRecord(this.recordFormat, input));
+            addRecord(new PaymentRecord(this.recordFormat, this.amountDecimals, input));
         } catch (InstantiationError e) {
             System.err.println(String.format("Cannot parse record '%s'", input));
         }
@@ -40,6 +40,17 @@ public class Assessment {
 
     private ArrayList<Integer> failedChecks;
 
+    public Assessment() {
+    }
+
+    /**
+     * Creates an assessment that was already made, e.g. by a BatchAssessment.
+     * @param failedChecks The IDs of all failed checks
+     */
+    Assessment(ArrayList<Integer> failedChecks) {
+        this.failedChecks = failedChecks;
+    }
+
     /**
      * Used to assess the current record and store the assessment so it can
      * be outputted to the engine later.
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2018 riddles.io (developers@riddles.io)
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ *     For the full copyright and license information, please view the LICENSE
+ *     file that was distributed with this source code.
+ */
+
+
+package bot.action;
+
+import java.util.ArrayList;
+
+import bot.RiskSystemState;
+import bot.checkpoint.AbstractCheck;
+import bot.checkpoint.BatchCheck;
+import bot.data.RecordBatch;
+
+/**
+ * bot.action.BatchAssessment
+ *
+ * Assesses a whole batch of records against all the checks. Checks that
+ * implement BatchCheck assess the batch in one call, all other checks
+ * are given the records one at a time, like in a normal match.
+ *
+ * All batches share the given state, as records share it in a match:
+ * batch checks see the state as it was at the start of the batch, and after
+ * they ran every record of the batch is added to the state, followed by
+ * its assessment. Per-record checks therefore see exactly the same history
+ * as in a match. Use RiskSystemState.setHistoryLimit() to bound the history
+ * in long runs.
+ *
+ * The failed checks of each record are stored as a bit mask of check IDs,
+ * so large batches don't need an Assessment object per record.
+ */
+public class BatchAssessment {
+
+    private static final int MAX_CHECK_ID = Long.SIZE - 1;
+
+    private long[] failedChecks;
+
+    /**
+     * Assesses all records in the batch and stores the results. The records
+     * and their assessments are added to the state.
+     * @param checks A list of all checks
+     * @param batch Records to assess
+     * @param state Current state of the bot
+     */
+    public void assessRecords(ArrayList<AbstractCheck> checks, RecordBatch batch, RiskSystemState state) {
+        this.failedChecks = new long[batch.size()];
+
+        ArrayList<AbstractCheck> recordChecks = new ArrayList<>();
+        for (AbstractCheck check : checks) {
+            if (check.getId() > MAX_CHECK_ID) {
+                throw new IllegalArgumentException(String.format(
+                        "Check id %d is too high for batch assessment", check.getId()));
+            }
+
+            if (check instanceof BatchCheck) {
+                boolean[] rejected = ((BatchCheck) check).rejectRecords(batch, state);
+                long mask = 1L << check.getId();
+
+                for (int i = 0; i < rejected.length; i++) {
+                    if (rejected[i]) this.failedChecks[i] |= mask;
+                }
+            } else {
+                recordChecks.add(check);
+            }
+        }
+
+        // Records arrive one by one, as in a match
+        for (int i = 0; i < batch.size(); i++) {
+            state.addRecord(batch.getRecord(i));
+
+            for (AbstractCheck check : recordChecks) {
+                if (check.rejectRecord(state)) {
+                    this.failedChecks[i] |= 1L << check.getId();
+                }
+            }
+
+            state.storeAssessment(new Assessment(getFailedChecks(i)));
+        }
+    }
+
+    /**
+     * Gets the IDs of the checks the record failed, in ascending order.
+     * @param index Index of the record in the batch
+     * @return A list of the IDs of all failed checks
+     */
+    public ArrayList<Integer> getFailedChecks(int index) {
+        ArrayList<Integer> failedChecks = new ArrayList<>();
+        long mask = this.failedChecks[index];
+
+        for (int checkId = 0; mask != 0; checkId++, mask >>>= 1) {
+            if ((mask & 1) != 0) failedChecks.add(checkId);
+        }
+
+        return failedChecks;
+    }
+
+    /**
+     * Gets the amount of assessed records.
+     * @return Amount of records
+     */
+    public int size() {
+        return this.failedChecks.length;
+    }
+
+    /**
+     * Returns whether the record failed any check.
+     * @param index Index of the record in the batch
+     * @return True if the record is rejected
+     */
+    public boolean isRejected(int index) {
+        return this.failedChecks[index] != 0;
+    }
+
+    /**
+     * Returns whether the record failed the given check.
+     * @param index Index of the record in the batch
+     * @param checkId Id of the check
+     * @return True if the record failed the check
+     */
+    public boolean failedCheck(int index, int checkId) {
+        return (this.failedChecks[index] & (1L << checkId)) != 0;
+    }
+
+    /**
+     * Transforms the assessment of one record to the same string
+     * format as Assessment.toString()
+     * @param index Index of the record in the batch
+     * @return Assessment of the record as a string
+     */
+    public String toString(int index) {
+        long mask = this.failedChecks[index];
+
+        if (mask == 0) {
+            return "authorized";
+        }
+
+        StringBuilder failedChecksString = new StringBuilder();
+        for (int checkId = 0; mask != 0; checkId++, mask >>>= 1) {
+            if ((mask & 1) == 0) continue;
+            if (failedChecksString.length() > 0) failedChecksString.append(",");
+            failedChecksString.append(checkId);
+        }
+
+        return String.format("rejected %s", failedChecksString);
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2018 riddles.io (developers@riddles.io)
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ *     For the full copyright and license information, please view the LICENSE
+ *     file that was distributed with this source code.
+ */
+
+
+package bot.blocklist;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * bot.blocklist.Blocklist
+ *
+ * A set of blocked values (such as card ids) that is built offline by
+ * BlocklistBuilder and memory-mapped when the bot starts, so large lists
+ * take neither heap nor parse time. Values are hashed to 64 bit keys,
+ * ignoring leading and trailing whitespace (as String.trim() does), so
+ * the builder and the checks agree on a value however it is padded;
+ * membership tests don't allocate.
+ *
+ * File layout: a 24 byte header (magic, type, hash count, unused int and
+ * a long with the amount of bits or keys), followed by the longs of the list.
+ */
+public abstract class Blocklist {
+
+    static final int MAGIC = 0x424C4B31;  // "BLK1"
+    static final int TYPE_BLOOM = 1;
+    static final int TYPE_SORTED = 2;
+    static final int HEADER_SIZE = 24;
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    /**
+     * Returns whether the key is in this blocklist.
+     * @param key Key of the value, as given by key()
+     * @return True if the key is (probably) blocked
+     */
+    public abstract boolean contains(long key);
+
+    /**
+     * Returns whether the value is in this blocklist.
+     * @param value The value, such as a card id
+     * @return True if the value is (probably) blocked
+     */
+    public boolean contains(CharSequence value) {
+        return contains(key(value));
+    }
+
+    /**
+     * Hashes a value to the 64 bit key that is stored in blocklists.
+     * Leading and trailing whitespace and control characters are ignored.
+     * @param value The value
+     * @return Key of the value
+     */
+    public static long key(CharSequence value) {
+        long hash = FNV_OFFSET;
+
+        int start = 0;
+        int end = value.length();
+        while (start < end && value.charAt(start) <= ' ') start++;
+        while (end > start && value.charAt(end - 1) <= ' ') end--;
+
+        for (int i = start; i < end; i++) {
+            hash ^= value.charAt(i);
+            hash *= FNV_PRIME;
+        }
+
+        return mix(hash);
+    }
+
+    /**
+     * Memory-maps a blocklist file.
+     * @param file File written by BlocklistBuilder
+     * @return The blocklist
+     * @throws IOException If the file can't be read or is not a blocklist
+     */
+    public static Blocklist map(File file) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException(String.format("'%s' is not a blocklist", file));
+        }
+
+        int type = buffer.getInt(4);
+        int hashCount = buffer.getInt(8);
+        long length = buffer.getLong(16);
+
+        buffer.position(HEADER_SIZE);
+        LongBuffer data = buffer.slice().asLongBuffer();
+
+        switch (type) {
+            case TYPE_BLOOM:
+                if (length <= 0 || length % Long.SIZE != 0 || hashCount < 1
+                        || data.limit() != length / Long.SIZE) break;
+                return new BloomBlocklist(data, length, hashCount);
+            case TYPE_SORTED:
+                if (length < 0 || data.limit() != length) break;
+                return new SortedBlocklist(data);
+        }
+
+        throw new IOException(String.format("'%s' is a corrupt blocklist", file));
+    }
+
+    static void writeHeader(DataOutputStream out, int type, int hashCount, long length)
+            throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(type);
+        out.writeInt(hashCount);
+        out.writeInt(0);
+        out.writeLong(length);
+    }
+
+    static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+
+        return hash;
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2018 riddles.io (developers@riddles.io)
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ *     For the full copyright and license information, please view the LICENSE
+ *     file that was distributed with this source code.
+ */
+
+
+package bot.blocklist;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.LongBuffer;
+
+/**
+ * bot.blocklist.BloomBlocklist
+ *
+ * Blocklist backed by a Bloom filter. Takes about 10 bits per value for
+ * a 1% false positive rate, but can reject values that are not blocked.
+ */
+public class BloomBlocklist extends Blocklist {
+
+    private final LongBuffer words;
+    private final long bitCount;
+    private final int hashCount;
+
+    BloomBlocklist(LongBuffer words, long bitCount, int hashCount) {
+        this.words = words;
+        this.bitCount = bitCount;
+        this.hashCount = hashCount;
+    }
+
+    @Override
+    public boolean contains(long key) {
+        long hash1 = key;
+        long hash2 = mix(key ^ 0x9e3779b97f4a7c15L) | 1;
+
+        for (int i = 0; i < this.hashCount; i++) {
+            long bit = ((hash1 + i * hash2) & Long.MAX_VALUE) % this.bitCount;
+
+            if ((this.words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Builds a Bloom filter of the keys and writes it in the blocklist format.
+     * @param keys Keys of the blocked values
+     * @param falsePositiveRate Wanted chance that a value that is not
+     *                          blocked is reported as blocked
+     * @param out Output to write to
+     * @throws IOException If writing fails
+     */
+    public static void write(long[] keys, double falsePositiveRate, DataOutputStream out)
+            throws IOException {
+        int count = Math.max(keys.length, 1);
+        long bitCount = (long) Math.ceil(-count * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        bitCount = Math.max(Long.SIZE, (bitCount + Long.SIZE - 1) / Long.SIZE * Long.SIZE);
+        int hashCount = (int) Math.max(1, Math.round((double) bitCount / count * Math.log(2)));
+
+        long[] words = new long[(int) (bitCount / Long.SIZE)];
+        BloomBlocklist filter = new BloomBlocklist(LongBuffer.wrap(words), bitCount, hashCount);
+
+        for (long key : keys) {
+            filter.add(key);
+        }
+
+        writeHeader(out, TYPE_BLOOM, hashCount, bitCount);
+        for (int i = 0; i < words.length; i++) {
+            out.writeLong(words[i]);
+        }
+    }
+
+    private void add(long key) {
+        long hash1 = key;
+        long hash2 = mix(key ^ 0x9e3779b97f4a7c15L) | 1;
+
+        for (int i = 0; i < this.hashCount; i++) {
+            long bit = ((hash1 + i * hash2) & Long.MAX_VALUE) % this.bitCount;
+            int index = (int) (bit >>> 6);
+
+            this.words.put(index, this.words.get(index) | (1L << bit));
+        }
+    }
+}
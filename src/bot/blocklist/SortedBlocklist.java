@@ -0,0 +1,84 @@
+/*
+ * Copyright 2018 riddles.io (developers@riddles.io)
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ *     For the full copyright and license information, please view the LICENSE
+ *     file that was distributed with this source code.
+ */
+
+
+package bot.blocklist;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.LongBuffer;
+import java.util.Arrays;
+
+/**
+ * bot.blocklist.SortedBlocklist
+ *
+ * Blocklist backed by a sorted array of keys, searched with a binary
+ * search. Takes 64 bits per value and has no false positives, other than
+ * the negligible chance of two values hashing to the same key.
+ */
+public class SortedBlocklist extends Blocklist {
+
+    private final LongBuffer keys;
+
+    SortedBlocklist(LongBuffer keys) {
+        this.keys = keys;
+    }
+
+    @Override
+    public boolean contains(long key) {
+        int low = 0;
+        int high = this.keys.limit() - 1;
+
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            long value = this.keys.get(middle);
+
+            if (value < key) {
+                low = middle + 1;
+            } else if (value > key) {
+                high = middle - 1;
+            } else {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Sorts the keys and writes them, without duplicates, in the
+     * blocklist format.
+     * @param keys Keys of the blocked values, will be sorted in place
+     * @param out Output to write to
+     * @throws IOException If writing fails
+     */
+    public static void write(long[] keys, DataOutputStream out) throws IOException {
+        Arrays.sort(keys);
+
+        int count = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (i == 0 || keys[i] != keys[i - 1]) keys[count++] = keys[i];
+        }
+
+        writeHeader(out, TYPE_SORTED, 0, count);
+        for (int i = 0; i < count; i++) {
+            out.writeLong(keys[i]);
+        }
+    }
+}
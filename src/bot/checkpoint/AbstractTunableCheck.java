@@ -0,0 +1,91 @@
+/*
+ * Copyright 2018 riddles.io (developers@riddles.io)
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ *     For the full copyright and license information, please view the LICENSE
+ *     file that was distributed with this source code.
+ */
+
+
+package bot.checkpoint;
+
+import bot.RiskSystemState;
+import bot.tuning.ScoreHistory;
+
+/**
+ * bot.checkpoint.AbstractTunableCheck
+ *
+ * Check that rejects a record when its score is higher than a threshold.
+ * The threshold starts at the given initial value and is then tuned by the
+ * ThresholdTuner so that the check rejects roughly the target fraction
+ * of records.
+ */
+public abstract class AbstractTunableCheck extends AbstractCheck {
+
+    private static final int HISTORY_SIZE = 4096;
+
+    private final long initialThreshold;
+    private final double targetRejectionRate;
+    private final ScoreHistory scoreHistory;
+
+    public AbstractTunableCheck(int id, long initialThreshold, double targetRejectionRate) {
+        super(id);
+        this.initialThreshold = initialThreshold;
+        this.targetRejectionRate = targetRejectionRate;
+        this.scoreHistory = new ScoreHistory(HISTORY_SIZE);
+    }
+
+    /**
+     * Computes the score of the current record (state.getCurrentRecord()).
+     * Higher scores are more suspicious.
+     * @param state Current bot state
+     * @return Score of the current record
+     */
+    protected abstract long getScore(RiskSystemState state);
+
+    /**
+     * Rejects the current record if its score is higher than the threshold
+     * in the parameters of the current state.
+     * @param state Current bot state
+     * @return True if the check is rejected, false if the record is approved
+     */
+    @Override
+    public boolean rejectRecord(RiskSystemState state) {
+        long score = getScore(state);
+        this.scoreHistory.record(score);
+
+        return score > getThreshold(state);
+    }
+
+    /**
+     * Gets the threshold that is currently in use by this check.
+     * @param state Current bot state
+     * @return Current threshold
+     */
+    protected long getThreshold(RiskSystemState state) {
+        return state.getCheckParameters().getThreshold(getId(), this.initialThreshold);
+    }
+
+    public long getInitialThreshold() {
+        return this.initialThreshold;
+    }
+
+    public double getTargetRejectionRate() {
+        return this.targetRejectionRate;
+    }
+
+    public ScoreHistory getScoreHistory() {
+        return this.scoreHistory;
+    }
+}
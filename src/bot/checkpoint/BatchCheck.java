@@ -0,0 +1,44 @@
+/*
+ * Copyright 2018 riddles.io (developers@riddles.io)
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ *     For the full copyright and license information, please view the LICENSE
+ *     file that was distributed with this source code.
+ */
+
+
+package bot.checkpoint;
+
+import bot.RiskSystemState;
+import bot.data.RecordBatch;
+
+/**
+ * bot.checkpoint.BatchCheck
+ *
+ * Can be implemented by checks that are able to assess a whole batch of
+ * records at once, preferably with simple loops over the batch columns.
+ * Checks that don't implement this are assessed record by record.
+ */
+public interface BatchCheck {
+
+    /**
+     * Returns for each record in the batch whether it fails this check.
+     * Must give the same results as calling rejectRecord(state) for every
+     * record in order.
+     * @param batch Records to assess
+     * @param state Current bot state, as it was before the first record of the batch
+     * @return For each record, true if it is rejected, false if it is approved
+     */
+    boolean[] rejectRecords(RecordBatch batch, RiskSystemState state);
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2018 riddles.io (developers@riddles.io)
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ *     For the full copyright and license information, please view the LICENSE
+ *     file that was distributed with this source code.
+ */
+
+
+package bot.checkpoint;
+
+import bot.RiskSystemState;
+import bot.blocklist.Blocklist;
+import bot.data.RecordBatch;
+
+/**
+ * bot.checkpoint.BlocklistCheck
+ *
+ * Rejects records of which the value in the given field, such as the
+ * cardid, emailid or shopperipid, is on a blocklist.
+ */
+public class BlocklistCheck extends AbstractCheck implements BatchCheck {
+
+    private final String field;
+    private final Blocklist blocklist;
+
+    public BlocklistCheck(int id, String field, Blocklist blocklist) {
+        super(id);
+        this.field = field;
+        this.blocklist = blocklist;
+    }
+
+    @Override
+    public String getDescription() {
+        return String.format("Rejects blocklisted %s values", this.field);
+    }
+
+    @Override
+    public boolean rejectRecord(RiskSystemState state) {
+        String value = state.getCurrentRecord().getData(this.field);
+
+        return value != null && this.blocklist.contains(value);
+    }
+
+    @Override
+    public boolean[] rejectRecords(RecordBatch batch, RiskSystemState state) {
+        boolean[] rejected = new boolean[batch.size()];
+
+        for (int i = 0; i < rejected.length; i++) {
+            String value = batch.getRecord(i).getData(this.field);
+            rejected[i] = value != null && this.blocklist.contains(value);
+        }
+
+        return rejected;
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2018 riddles.io (developers@riddles.io)
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ *     For the full copyright and license information, please view the LICENSE
+ *     file that was distributed with this source code.
+ */
+
+
+package bot.checkpoint;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Properties;
+
+/**
+ * bot.checkpoint.CheckLoader
+ *
+ * Loads checks from a plugin directory. The directory must contain a
+ * checkpoints.properties descriptor that maps each check id to the class
+ * of the check, e.g. "0=com.example.VelocityCheck". The classes are loaded
+ * from the jars in the same directory, through a new class loader for
+ * every load, and must have a public constructor that takes the id.
+ * The returned CheckSet owns that class loader; if loading fails, it is
+ * closed right away.
+ */
+public final class CheckLoader {
+
+    public static final String DESCRIPTOR = "checkpoints.properties";
+
+    private CheckLoader() {}
+
+    /**
+     * Loads and creates all checks listed in the descriptor.
+     * @param directory Plugin directory
+     * @param maxCheckpoints Maximum amount of checks
+     * @return The loaded checks
+     * @throws IOException If the descriptor or the jars can't be read
+     * @throws ReflectiveOperationException If a check can't be created
+     * @throws IllegalArgumentException If the check IDs are not 0 to n-1,
+     *                                  or there are too many checks
+     */
+    public static CheckSet load(File directory, int maxCheckpoints)
+            throws IOException, ReflectiveOperationException, IllegalArgumentException {
+        Properties descriptor = new Properties();
+        try (Reader reader = new FileReader(new File(directory, DESCRIPTOR))) {
+            descriptor.load(reader);
+        }
+
+        File[] jars = directory.listFiles((dir, name) -> name.endsWith(".jar"));
+        URL[] urls = new URL[jars == null ? 0 : jars.length];
+        for (int i = 0; i < urls.length; i++) {
+            urls[i] = jars[i].toURI().toURL();
+        }
+
+        URLClassLoader classLoader = new URLClassLoader(urls, CheckLoader.class.getClassLoader());
+
+        try {
+            ArrayList<AbstractCheck> checks = new ArrayList<>();
+
+            for (String key : descriptor.stringPropertyNames()) {
+                int id;
+                try {
+                    id = Integer.parseInt(key.trim());
+                } catch (NumberFormatException e) {
+                    throw new IOException(String.format("Invalid check id '%s' in %s", key, DESCRIPTOR));
+                }
+
+                Class<? extends AbstractCheck> checkClass = Class
+                        .forName(descriptor.getProperty(key).trim(), true, classLoader)
+                        .asSubclass(AbstractCheck.class);
+
+                checks.add(checkClass.getConstructor(int.class).newInstance(id));
+            }
+
+            CheckSet checkSet = new CheckSet(checks, classLoader);  // Sorts the checks by id
+            checkSet.validate(maxCheckpoints);
+
+            return checkSet;
+        } catch (Throwable e) {
+            classLoader.close();
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2018 riddles.io (developers@riddles.io)
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ *     For the full copyright and license information, please view the LICENSE
+ *     file that was distributed with this source code.
+ */
+
+
+package bot.checkpoint;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.IntSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * bot.checkpoint.CheckReloader
+ *
+ * Watches a plugin directory on a background thread and reloads the checks
+ * with the CheckLoader whenever files in it change. Loading and creating
+ * the new checks is done entirely on the watcher thread; the new set is
+ * then handed to the listener, which only has to swap it in.
+ */
+public class CheckReloader {
+
+    private static final Logger log = Logger.getLogger(CheckReloader.class.getSimpleName());
+
+    private static final long QUIET_PERIOD = 250;  // ms without changes before reloading
+
+    private final Path directory;
+    private final IntSupplier maxCheckpoints;
+    private final Consumer<CheckSet> listener;
+
+    private WatchService watchService;
+
+    public CheckReloader(Path directory, IntSupplier maxCheckpoints, Consumer<CheckSet> listener) {
+        this.directory = directory;
+        this.maxCheckpoints = maxCheckpoints;
+        this.listener = listener;
+    }
+
+    /**
+     * Starts watching the directory on a background daemon thread.
+     * @throws IOException If the directory can't be watched
+     */
+    public synchronized void start() throws IOException {
+        if (this.watchService != null) return;
+
+        WatchService watchService = this.directory.getFileSystem().newWatchService();
+        this.directory.register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY,
+                StandardWatchEventKinds.ENTRY_DELETE);
+        this.watchService = watchService;
+
+        Thread thread = new Thread(() -> this.watch(watchService), "check-reloader");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops watching the directory.
+     */
+    public synchronized void stop() {
+        if (this.watchService == null) return;
+
+        try {
+            this.watchService.close();
+        } catch (IOException e) {
+            log.log(Level.WARNING, "Cannot close watch service", e);
+        }
+        this.watchService = null;
+    }
+
+    private void watch(WatchService watchService) {
+        try {
+            while (true) {
+                consume(watchService.take());
+
+                // A jar is often written in several steps, wait until it's done
+                WatchKey key;
+                while ((key = watchService.poll(QUIET_PERIOD, TimeUnit.MILLISECONDS)) != null) {
+                    consume(key);
+                }
+
+                reload();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Stopped
+        }
+    }
+
+    private void reload() {
+        try {
+            this.listener.accept(CheckLoader.load(this.directory.toFile(), this.maxCheckpoints.getAsInt()));
+        } catch (Exception | LinkageError e) {
+            log.log(Level.WARNING, String.format(
+                    "Cannot reload checks from '%s', keeping current checks", this.directory), e);
+        }
+    }
+
+    private static void consume(WatchKey key) {
+        key.pollEvents();
+        key.reset();
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2018 riddles.io (developers@riddles.io)
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ *     For the full copyright and license information, please view the LICENSE
+ *     file that was distributed with this source code.
+ */
+
+
+package bot.checkpoint;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * bot.checkpoint.CheckSet
+ *
+ * Immutable set of checks that is used for assessing records. The bot
+ * swaps in a whole new CheckSet when the checks are reloaded, so a record
+ * is always assessed by one complete set of checks.
+ *
+ * The check IDs must run from 0 without gaps, and there can be at most
+ * MAX_CHECKS checks, so every id fits in the bit masks of BatchAssessment.
+ *
+ * A set that was loaded from a plugin directory owns the class loader of
+ * its checks, which is closed when the set is closed.
+ */
+public final class CheckSet implements Closeable {
+
+    public static final int MAX_CHECKS = Long.SIZE;
+
+    private final ArrayList<AbstractCheck> checks;
+    private final URLClassLoader classLoader;
+
+    /**
+     * Creates a new check set.
+     * @param checks The checks
+     * @throws IllegalArgumentException If the check IDs are not 0 to n-1,
+     *                                  or there are too many checks
+     */
+    public CheckSet(List<? extends AbstractCheck> checks) throws IllegalArgumentException {
+        this(checks, null);
+    }
+
+    /**
+     * Creates a new check set that owns the class loader of its checks.
+     * The checks are sorted by id.
+     * @param checks The checks
+     * @param classLoader Class loader of the checks, or null
+     * @throws IllegalArgumentException If the check IDs are not 0 to n-1,
+     *                                  or there are too many checks
+     */
+    public CheckSet(List<? extends AbstractCheck> checks, URLClassLoader classLoader)
+            throws IllegalArgumentException {
+        this.checks = new ArrayList<>(checks);
+        this.checks.sort(Comparator.comparingInt(AbstractCheck::getId));
+        this.classLoader = classLoader;
+
+        if (this.checks.size() > MAX_CHECKS) {
+            throw new IllegalArgumentException(String.format(
+                    "%d checks, at most %d are supported", this.checks.size(), MAX_CHECKS));
+        }
+
+        for (int i = 0; i < this.checks.size(); i++) {
+            if (this.checks.get(i).getId() != i) {
+                throw new IllegalArgumentException(String.format(
+                        "Check IDs must be 0 to %d without gaps, found id %d at position %d",
+                        this.checks.size() - 1, this.checks.get(i).getId(), i));
+            }
+        }
+    }
+
+    /**
+     * Creates a new set with the checks of this set and the given checks.
+     * The new set takes over the class loader, so only it must be closed.
+     * @param extraChecks Checks to add
+     * @return The new set
+     * @throws IllegalArgumentException If the check IDs are not 0 to n-1,
+     *                                  or there are too many checks
+     */
+    public CheckSet withChecks(List<? extends AbstractCheck> extraChecks) throws IllegalArgumentException {
+        ArrayList<AbstractCheck> checks = new ArrayList<>(this.checks);
+        checks.addAll(extraChecks);
+
+        return new CheckSet(checks, this.classLoader);
+    }
+
+    /**
+     * Checks that this set fits in the amount of checkpoints the game
+     * engine allows.
+     * @param maxCheckpoints The max_checkpoints setting
+     * @throws IllegalArgumentException If there are more checks
+     */
+    public void validate(int maxCheckpoints) throws IllegalArgumentException {
+        if (this.checks.size() > maxCheckpoints) {
+            throw new IllegalArgumentException(String.format(
+                    "%d checks, but max_checkpoints is %d", this.checks.size(), maxCheckpoints));
+        }
+    }
+
+    /**
+     * Returns whether the other set has the same check IDs and descriptions,
+     * i.e. whether it can replace this set without the game engine noticing.
+     * @param other The other set
+     * @return True if the IDs and descriptions are the same
+     */
+    public boolean matches(CheckSet other) {
+        return Arrays.equals(getIds(), other.getIds())
+                && checkPointsToString().equals(other.checkPointsToString());
+    }
+
+    /**
+     * Gets the IDs of the checks in this set, sorted.
+     * @return The check IDs
+     */
+    public int[] getIds() {
+        return this.checks.stream().mapToInt(AbstractCheck::getId).toArray();
+    }
+
+    /**
+     * Gets the checks in this set. The list must not be modified.
+     * @return A list of all checks
+     */
+    public ArrayList<AbstractCheck> getChecks() {
+        return this.checks;
+    }
+
+    /**
+     * Gets the description of all the checks, sorted by id, in the
+     * format the game engine uses to set the checkpoint descriptions.
+     * @return Descriptions separated by ';'
+     */
+    public String checkPointsToString() {
+        return this.checks.stream()
+                .sorted(Comparator.comparingInt(AbstractCheck::getId))
+                .map(AbstractCheck::getDescription)
+                .collect(Collectors.joining(";"));
+    }
+
+    /**
+     * Closes the class loader of the checks, if this set owns one.
+     * The checks must not be used anymore afterwards.
+     * @throws IOException If the class loader can't be closed
+     */
+    @Override
+    public void close() throws IOException {
+        if (this.classLoader != null) {
+            this.classLoader.close();
+        }
+    }
+}
@@ -21,6 +21,7 @@ package bot.checkpoint;
 
 import bot.RiskSystemState;
 import bot.data.PaymentRecord;
+import bot.data.RecordBatch;
 
 import java.util.logging.Logger;
 
@@ -31,7 +32,7 @@ import java.util.logging.Logger;
  *
  * @author Jim van Eeden - jim@riddles.io
  */
-public class ExampleCheck1 extends AbstractCheck {
+public class ExampleCheck1 extends AbstractCheck implements BatchCheck {
 
     private static final Logger log = Logger.getLogger(ExampleCheck1.class.getSimpleName());
 
@@ -62,4 +63,19 @@ public class ExampleCheck1 extends AbstractCheck {
 
         return false;
     }
-}
\ No newline at end of file
+
+    @Override
+    public boolean[] rejectRecords(RecordBatch batch, RiskSystemState state) {
+        boolean[] rejected = new boolean[batch.size()];
+        int counter = this.counter;
+
+        for (int i = 0; i < rejected.length; i++) {
+            counter++;
+            rejected[i] = counter % 2 == 1;
+        }
+
+        this.counter = counter;
+
+        return rejected;
+    }
+}
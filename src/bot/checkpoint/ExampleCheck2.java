@@ -20,24 +20,30 @@
 package bot.checkpoint;
 
 import bot.RiskSystemState;
+import bot.data.CurrencyConverter;
 import bot.data.PaymentRecord;
+import bot.data.RecordBatch;
 
 /**
  * bot.checkpoint.ExampleCheck2
  *
  * Example check 2
  *
+ * Records of which the amount can't be converted to euros are scored on
+ * their amount in cents of their own currency instead, but are left out of the score history, so
+ * they don't affect the tuned threshold.
+ *
  * @author Jim van Eeden - jim@riddles.io
  */
-public class ExampleCheck2 extends AbstractCheck {
+public class ExampleCheck2 extends AbstractTunableCheck implements BatchCheck {
 
     public ExampleCheck2(int id) {
-        super(id);
+        super(id, 10000, 0.05);  // Start at EUR 100.00, then reject the highest 5%
     }
 
     @Override
     public String getDescription() {
-        return "Rejects transaction amounts higher than 100.00";
+        return "Rejects unusually high transaction amounts";
     }
 
     @Override
@@ -46,6 +52,38 @@ public class ExampleCheck2 extends AbstractCheck {
 
         System.err.println("ExampleCheck2: Checking record " + record.getData("txid"));
 
-        return record.getAmount() > 10000;  // Doesn't check which currency it is
+        if (record.getEurAmount() == CurrencyConverter.UNKNOWN_AMOUNT) {
+            return record.getAmount() > getThreshold(state);
+        }
+
+        return super.rejectRecord(state);
+    }
+
+    @Override
+    protected long getScore(RiskSystemState state) {
+        return state.getCurrentRecord().getEurAmount();
+    }
+
+    @Override
+    public boolean[] rejectRecords(RecordBatch batch, RiskSystemState state) {
+        long[] eurAmounts = batch.getEurAmounts();
+        long[] amounts = batch.getAmounts();
+        long threshold = getThreshold(state);
+        boolean[] rejected = new boolean[batch.size()];
+        long[] scores = new long[batch.size()];
+        int scoreCount = 0;
+
+        for (int i = 0; i < rejected.length; i++) {
+            if (eurAmounts[i] == CurrencyConverter.UNKNOWN_AMOUNT) {
+                rejected[i] = amounts[i] > threshold;
+            } else {
+                rejected[i] = eurAmounts[i] > threshold;
+                scores[scoreCount++] = eurAmounts[i];
+            }
+        }
+
+        getScoreHistory().recordAll(scores, scoreCount);
+
+        return rejected;
     }
 }
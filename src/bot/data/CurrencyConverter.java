@@ -0,0 +1,206 @@
+/*
+ * Copyright 2018 riddles.io (developers@riddles.io)
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ *     For the full copyright and license information, please view the LICENSE
+ *     file that was distributed with this source code.
+ */
+
+
+package bot.data;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * bot.data.CurrencyConverter
+ *
+ * Converts amounts to euro cents, so amounts in different currencies can be
+ * compared. Currency codes are dictionary encoded to small ids, which index
+ * a cache of conversion rates that is loaded once from a local rates file.
+ *
+ * The rates file has one "CODE,rate" line per currency, where the rate is
+ * the value of one unit of the currency in euros, e.g. "GBP,1.385".
+ * By default the exchange_rates.csv resource next to this class is used,
+ * which is packaged in the jar.
+ *
+ * The dictionary is frozen once the rates are loaded: only currencies with
+ * a rate get an id, so a converter is immutable and can be shared between
+ * threads. Other codes map to UNKNOWN_CURRENCY.
+ */
+public class CurrencyConverter {
+
+    private static final Logger log = Logger.getLogger(CurrencyConverter.class.getSimpleName());
+
+    public static final int UNKNOWN_CURRENCY = -1;
+    public static final long UNKNOWN_AMOUNT = Long.MIN_VALUE;
+
+    private static final String RATES_RESOURCE = "exchange_rates.csv";
+    private static final int RATE_SCALE = 6;
+    private static final long RATE_UNIT = 1000000L;
+
+    private static final CurrencyConverter defaultConverter = loadDefault();
+
+    private final int[] codeToId;  // Three letter code packed to 15 bits -> dense id
+    private final String[] idToCode;
+    private final long[] rates;  // Euro per unit, scaled by RATE_UNIT, indexed by id
+
+    /**
+     * Creates a converter that only knows euros.
+     */
+    public CurrencyConverter() {
+        this(new LinkedHashMap<>());
+    }
+
+    private CurrencyConverter(LinkedHashMap<String, Long> rates) {
+        rates.putIfAbsent("EUR", RATE_UNIT);
+
+        this.codeToId = new int[26 * 26 * 26];
+        this.idToCode = new String[rates.size()];
+        this.rates = new long[rates.size()];
+        Arrays.fill(this.codeToId, UNKNOWN_CURRENCY);
+
+        int id = 0;
+        for (Map.Entry<String, Long> rate : rates.entrySet()) {
+            this.codeToId[packCode(rate.getKey())] = id;
+            this.idToCode[id] = rate.getKey();
+            this.rates[id] = rate.getValue();
+            id++;
+        }
+    }
+
+    /**
+     * Gets the converter loaded from the packaged rates at startup. A rates
+     * file can be used instead with the bot.exchangeRates system property.
+     * @return The default converter
+     */
+    public static CurrencyConverter getDefault() {
+        return defaultConverter;
+    }
+
+    /**
+     * Creates a converter with the rates from the given file. If the file
+     * can't be read, only euro amounts can be converted.
+     * @param path Path to the rates file
+     * @return The converter
+     */
+    public static CurrencyConverter load(String path) {
+        LinkedHashMap<String, Long> rates = new LinkedHashMap<>();
+
+        try (Reader reader = new FileReader(path)) {
+            readRates(reader, rates);
+        } catch (IOException e) {
+            log.warning(String.format("Cannot read exchange rates from '%s'", path));
+        }
+
+        return new CurrencyConverter(rates);
+    }
+
+    private static CurrencyConverter loadDefault() {
+        String path = System.getProperty("bot.exchangeRates");
+        if (path != null) {
+            return load(path);
+        }
+
+        LinkedHashMap<String, Long> rates = new LinkedHashMap<>();
+
+        try (InputStream input = CurrencyConverter.class.getResourceAsStream(RATES_RESOURCE)) {
+            if (input == null) throw new IOException("Resource not found");
+            readRates(new InputStreamReader(input, StandardCharsets.UTF_8), rates);
+        } catch (IOException e) {
+            log.warning(String.format("Cannot read exchange rates resource '%s'", RATES_RESOURCE));
+        }
+
+        return new CurrencyConverter(rates);
+    }
+
+    private static void readRates(Reader input, LinkedHashMap<String, Long> rates) throws IOException {
+        BufferedReader reader = new BufferedReader(input);
+        String line;
+
+        while ((line = reader.readLine()) != null) {
+            String[] parts = line.trim().split(",");
+            if (parts.length != 2 || parts[0].startsWith("#")) continue;
+
+            String code = parts[0].trim();
+            if (packCode(code) < 0) {
+                System.err.println(String.format("Invalid currency code '%s'", code));
+                continue;
+            }
+
+            try {
+                rates.put(code, FixedPoint.parse(parts[1].trim(), RATE_SCALE));
+            } catch (NumberFormatException e) {
+                System.err.println(String.format("Cannot parse exchange rate '%s'", line));
+            }
+        }
+    }
+
+    /**
+     * Gets the id of a currency. Doesn't allocate.
+     * @param code Three letter currency code, such as "GBP"
+     * @return Id of the currency, or UNKNOWN_CURRENCY if there is no rate for it
+     */
+    public int getCurrencyId(String code) {
+        int key = packCode(code);
+
+        return key < 0 ? UNKNOWN_CURRENCY : this.codeToId[key];
+    }
+
+    /**
+     * Gets the currency code of an id.
+     * @param currencyId Id of the currency
+     * @return Three letter currency code
+     */
+    public String getCurrencyCode(int currencyId) {
+        return this.idToCode[currencyId];
+    }
+
+    /**
+     * Converts an amount to euro cents.
+     * @param cents Amount in cents of the currency
+     * @param currencyId Id of the currency
+     * @return Amount in euro cents, or UNKNOWN_AMOUNT if the currency is unknown
+     */
+    public long toEuroCents(long cents, int currencyId) {
+        if (currencyId < 0 || currencyId >= this.rates.length) return UNKNOWN_AMOUNT;
+
+        long scaled = cents * this.rates[currencyId];
+        long half = scaled < 0 ? -RATE_UNIT / 2 : RATE_UNIT / 2;  // Round half away from zero, like FixedPoint
+
+        return (scaled + half) / RATE_UNIT;
+    }
+
+    private static int packCode(String code) {
+        if (code == null || code.length() != 3) return -1;
+
+        int key = 0;
+        for (int i = 0; i < 3; i++) {
+            int letter = code.charAt(i) - 'A';
+            if (letter < 0 || letter >= 26) return -1;
+            key = key * 26 + letter;
+        }
+
+        return key;
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2018 riddles.io (developers@riddles.io)
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ *     For the full copyright and license information, please view the LICENSE
+ *     file that was distributed with this source code.
+ */
+
+
+package bot.data;
+
+/**
+ * bot.data.FixedPoint
+ *
+ * Parses decimal strings such as "76.17" straight into fixed-point longs,
+ * without creating any objects. Used instead of BigDecimal and
+ * Double.parseDouble while parsing records.
+ */
+public final class FixedPoint {
+
+    private static final long[] POWERS_OF_TEN = {
+            1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 10000000L, 100000000L, 1000000000L
+    };
+
+    private FixedPoint() {}
+
+    /**
+     * Parses a decimal value to a long with the given amount of decimals,
+     * e.g. "76.17" with scale 2 becomes 7617. Extra decimals are rounded
+     * half up.
+     * @param value Decimal value, optionally signed
+     * @param scale Amount of decimals to keep, at most 9
+     * @return The value multiplied by 10^scale
+     * @throws NumberFormatException If the value is not a valid decimal
+     */
+    public static long parse(CharSequence value, int scale) throws NumberFormatException {
+        int length = value.length();
+        int index = 0;
+        boolean negative = false;
+
+        if (length > 0 && (value.charAt(0) == '-' || value.charAt(0) == '+')) {
+            negative = value.charAt(0) == '-';
+            index++;
+        }
+
+        long result = 0;
+        int decimals = -1;  // -1 while before the decimal point
+        boolean roundUp = false;
+        boolean hasDigits = false;
+
+        for (; index < length; index++) {
+            char c = value.charAt(index);
+
+            if (c == '.' && decimals < 0) {
+                decimals = 0;
+                continue;
+            }
+            if (c < '0' || c > '9') {
+                throw new NumberFormatException(String.format("Invalid decimal '%s'", value));
+            }
+
+            hasDigits = true;
+
+            if (decimals < scale) {
+                int digit = c - '0';
+                if (result > (Long.MAX_VALUE - digit) / 10) {
+                    throw new NumberFormatException(String.format("Decimal '%s' is too large", value));
+                }
+                result = result * 10 + digit;
+                if (decimals >= 0) decimals++;
+            } else if (decimals == scale) {
+                roundUp = c >= '5';
+                decimals++;
+            }
+        }
+
+        if (!hasDigits) {
+            throw new NumberFormatException(String.format("Invalid decimal '%s'", value));
+        }
+
+        // Pad missing decimals, e.g. "76.1" or "76" with scale 2
+        int missing = scale - Math.max(decimals, 0);
+        if (missing > 0) {
+            if (result > Long.MAX_VALUE / POWERS_OF_TEN[missing]) {
+                throw new NumberFormatException(String.format("Decimal '%s' is too large", value));
+            }
+            result *= POWERS_OF_TEN[missing];
+        }
+        if (roundUp) {
+            if (result == Long.MAX_VALUE) {
+                throw new NumberFormatException(String.format("Decimal '%s' is too large", value));
+            }
+            result++;
+        }
+
+        return negative ? -result : result;
+    }
+}
@@ -30,19 +30,53 @@ import java.time.LocalDateTime;
  * be implemented here that perform calculations on the record data
  *
  * Currently only stores a map of all the string values of the record
- * and additionally parses and stores the amount and time stamps.
+ * and additionally parses and stores the amounts, currency and time stamps.
+ *
+ * How many decimals the amount field implies depends on the record format,
+ * so it is given explicitly: the game feed has whole currency units
+ * ("55" is 55.00), other data may have cents ("5500" is 55.00). Either
+ * way getAmount() returns cents.
  *
  * @author Jim van Eeden - jim@riddles.io
  */
 public class PaymentRecord {
 
+    /** Amount field in whole currency units, as in the game feed */
+    public static final int WHOLE_UNITS = 0;
+    /** Amount field in cents */
+    public static final int CENTS = 2;
+
     private static final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
     private HashMap<String, String> stringValueMap;
-    private long amount;  // Amount in the data is in cents, so 1234 is 12.34
+    private long amount;  // In cents of the record's currency, so 1234 is 12.34
+    private long eurAmount = CurrencyConverter.UNKNOWN_AMOUNT;  // Also in cents
+    private int currencyId = CurrencyConverter.UNKNOWN_CURRENCY;
     private LocalDateTime creationDate;
 
     public PaymentRecord(String[] recordFormat, String record) throws InstantiationError {
+        this(recordFormat, WHOLE_UNITS, record);
+    }
+
+    public PaymentRecord(String[] recordFormat, int amountDecimals, String record)
+            throws InstantiationError {
+        this(recordFormat, amountDecimals, record, CurrencyConverter.getDefault());
+    }
+
+    /**
+     * Parses a record.
+     * @param recordFormat Field names of the record
+     * @param amountDecimals Decimals implied by the amount field, WHOLE_UNITS or CENTS
+     * @param record The comma separated record
+     * @param converter Converter for records without eur_amount
+     * @throws InstantiationError If the record does not match the format
+     */
+    public PaymentRecord(String[] recordFormat, int amountDecimals, String record,
+                         CurrencyConverter converter) throws InstantiationError {
+        if (amountDecimals < WHOLE_UNITS || amountDecimals > CENTS) {
+            throw new IllegalArgumentException("Amount decimals must be 0, 1 or 2");
+        }
+
         this.stringValueMap  = new HashMap<>();
         String[] values = record.split(",");
 
@@ -52,15 +86,26 @@ public class PaymentRecord {
 
         for (int i = 0; i < recordFormat.length; i++) {
             this.stringValueMap.put(recordFormat[i], values[i]);
-            this.parseValues(recordFormat[i], values[i]);
+            this.parseValues(recordFormat[i], values[i], amountDecimals, converter);
+        }
+
+        // Records without eur_amount are converted with the cached rates
+        if (this.eurAmount == CurrencyConverter.UNKNOWN_AMOUNT) {
+            this.eurAmount = converter.toEuroCents(this.amount, this.currencyId);
         }
     }
 
-    private void parseValues(String key, String value) {
+    private void parseValues(String key, String value, int amountDecimals, CurrencyConverter converter) {
         try {
             switch (key) {
                 case "amount":
-                    this.amount = Long.parseLong(value);
+                    this.amount = FixedPoint.parse(value, CENTS - amountDecimals);
+                    break;
+                case "eur_amount":
+                    this.eurAmount = FixedPoint.parse(value, 2);
+                    break;
+                case "currency":
+                    this.currencyId = converter.getCurrencyId(value);
                     break;
                 case "creation_date":
                     this.creationDate = LocalDateTime.parse(value, formatter);
@@ -77,10 +122,27 @@ public class PaymentRecord {
         return this.stringValueMap.get(key);
     }
 
+    /**
+     * Gets the amount in the record's own currency.
+     * @return Amount in cents, whatever the scale of the amount field
+     */
     public long getAmount() {
         return this.amount;
     }
 
+    /**
+     * Gets the amount normalized to euro cents, so it can be compared
+     * between records in different currencies.
+     * @return Amount in euro cents, or CurrencyConverter.UNKNOWN_AMOUNT
+     */
+    public long getEurAmount() {
+        return this.eurAmount;
+    }
+
+    public int getCurrencyId() {
+        return this.currencyId;
+    }
+
     public LocalDateTime getCreationDate() {
         return this.creationDate;
     }
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2018 riddles.io (developers@riddles.io)
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ *     For the full copyright and license information, please view the LICENSE
+ *     file that was distributed with this source code.
+ */
+
+
+package bot.data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * bot.data.RecordBatch
+ *
+ * A block of records that is assessed in one go. Besides the records
+ * themselves, the parsed values are stored in column arrays, so checks can
+ * loop over them without going through the records one by one.
+ */
+public class RecordBatch {
+
+    private final ArrayList<PaymentRecord> records;
+    private final long[] amounts;
+    private final long[] eurAmounts;
+    private final int[] currencyIds;
+
+    public RecordBatch(List<PaymentRecord> records) {
+        this.records = new ArrayList<>(records);
+        this.amounts = new long[records.size()];
+        this.eurAmounts = new long[records.size()];
+        this.currencyIds = new int[records.size()];
+
+        for (int i = 0; i < this.amounts.length; i++) {
+            PaymentRecord record = this.records.get(i);
+
+            this.amounts[i] = record.getAmount();
+            this.eurAmounts[i] = record.getEurAmount();
+            this.currencyIds[i] = record.getCurrencyId();
+        }
+    }
+
+    /**
+     * Gets the amount of records in this batch.
+     * @return Amount of records
+     */
+    public int size() {
+        return this.records.size();
+    }
+
+    /**
+     * Gets a record from this batch.
+     * @param index Index of the record in the batch
+     * @return The record
+     */
+    public PaymentRecord getRecord(int index) {
+        return this.records.get(index);
+    }
+
+    /**
+     * Gets the amount column of this batch. The array must not be modified.
+     * @return Amounts in cents of each record's currency, indexed like the records
+     */
+    public long[] getAmounts() {
+        return this.amounts;
+    }
+
+    /**
+     * Gets the normalized amount column of this batch. The array must not
+     * be modified.
+     * @return Amounts in euro cents, indexed like the records
+     */
+    public long[] getEurAmounts() {
+        return this.eurAmounts;
+    }
+
+    /**
+     * Gets the currency column of this batch. The array must not be modified.
+     * @return Currency ids as given by the CurrencyConverter, indexed like the records
+     */
+    public int[] getCurrencyIds() {
+        return this.currencyIds;
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright 2018 riddles.io (developers@riddles.io)
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ *     For the full copyright and license information, please view the LICENSE
+ *     file that was distributed with this source code.
+ */
+
+
+package bot.tools;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+
+import bot.Bot;
+import bot.RiskSystemState;
+import bot.action.BatchAssessment;
+import bot.data.PaymentRecord;
+import bot.data.RecordBatch;
+
+/**
+ * bot.tools.Backtest
+ *
+ * Scores a csv file of records (such as training_set.csv) offline with the
+ * checks of the bot, in batches. The first line of the file must be the
+ * header, which is used as the record format.
+ *
+ * Prints how many records each check rejected and, if the file has a
+ * "fraud" column, how many of the rejected records were actually fraud.
+ * Optionally writes the assessment of every record to an output file.
+ * The thresholds are tuned after every batch, so the same input always
+ * gives the same results.
+ *
+ * All records share one state, as in a match, but only the last records
+ * and assessments are kept in it (10000 by default, set with --history).
+ * The amount column is read as whole currency units, as in the game feed,
+ * unless --cents is given.
+ */
+public class Backtest {
+
+    private static final int BATCH_SIZE = 4096;
+    private static final int DEFAULT_HISTORY_LIMIT = 10000;
+
+    private final Bot bot;
+    private final RiskSystemState state;
+    private final String[] checkDescriptions;
+
+    private long[] rejectedPerCheck;
+    private long records;
+    private long rejected;
+    private long frauds;
+    private long fraudsRejected;
+
+    public Backtest(Bot bot, int historyLimit, int amountDecimals) {
+        this.bot = bot;
+        this.state = new RiskSystemState();
+        this.state.setHistoryLimit(historyLimit);
+        this.state.setAmountDecimals(amountDecimals);
+        this.checkDescriptions = bot.checkPointsToString().split(";");
+        this.rejectedPerCheck = new long[this.checkDescriptions.length];
+    }
+
+    /**
+     * Scores all records in the input file.
+     * @param reader Reader of the csv file, including the header
+     * @param writer Writer for the assessments, or null to not write them
+     * @throws IOException If reading or writing fails
+     */
+    public void run(BufferedReader reader, BufferedWriter writer) throws IOException {
+        String header = reader.readLine();
+        if (header == null) return;
+
+        String[] recordFormat = header.split(",");
+        this.state.setRecordFormat(recordFormat);
+
+        ArrayList<PaymentRecord> block = new ArrayList<>(BATCH_SIZE);
+        String line;
+
+        while ((line = reader.readLine()) != null) {
+            if (line.length() <= 0) continue;
+
+            try {
+                block.add(new PaymentRecord(recordFormat, this.state.getAmountDecimals(), line));
+            } catch (InstantiationError e) {
+                System.err.println(String.format("Cannot parse record '%s'", line));
+            }
+
+            if (block.size() == BATCH_SIZE) {
+                assessBlock(block, writer);
+                block.clear();
+            }
+        }
+
+        if (!block.isEmpty()) {
+            assessBlock(block, writer);
+        }
+    }
+
+    private void assessBlock(ArrayList<PaymentRecord> block, BufferedWriter writer) throws IOException {
+        RecordBatch batch = new RecordBatch(block);
+        BatchAssessment assessment = this.bot.getAssessments(batch, this.state);
+
+        for (int i = 0; i < assessment.size(); i++) {
+            boolean isRejected = assessment.isRejected(i);
+            boolean isFraud = "true".equalsIgnoreCase(batch.getRecord(i).getData("fraud"));
+
+            this.records++;
+            if (isRejected) this.rejected++;
+            if (isFraud) this.frauds++;
+            if (isFraud && isRejected) this.fraudsRejected++;
+
+            for (int checkId = 0; checkId < this.rejectedPerCheck.length; checkId++) {
+                if (assessment.failedCheck(i, checkId)) this.rejectedPerCheck[checkId]++;
+            }
+
+            if (writer != null) {
+                writer.write(assessment.toString(i));
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * Prints the results of the backtest.
+     * @param elapsedNanos Time the backtest took
+     */
+    public void printSummary(long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+
+        System.out.println(String.format("Records:  %d in %.2f s (%.0f records/s)",
+                this.records, seconds, this.records / Math.max(seconds, 1e-9)));
+        System.out.println(String.format("Rejected: %d", this.rejected));
+
+        if (this.frauds > 0) {
+            System.out.println(String.format("Fraud:    %d, of which %d rejected",
+                    this.frauds, this.fraudsRejected));
+        }
+
+        for (int checkId = 0; checkId < this.rejectedPerCheck.length; checkId++) {
+            System.out.println(String.format("  %d %-50s %d rejected",
+                    checkId, this.checkDescriptions[checkId], this.rejectedPerCheck[checkId]));
+        }
+    }
+
+    /**
+     * Main method
+     * @param args [--history n] [--cents] input csv file and optionally an output file for the assessments
+     */
+    public static void main(String[] args) throws IOException {
+        int historyLimit = DEFAULT_HISTORY_LIMIT;
+        int amountDecimals = PaymentRecord.WHOLE_UNITS;
+        int index = 0;
+
+        try {
+            for (; index < args.length && args[index].startsWith("--"); index++) {
+                switch (args[index]) {
+                    case "--history":
+                        historyLimit = Integer.parseInt(args[++index]);
+                        break;
+                    case "--cents":
+                        amountDecimals = PaymentRecord.CENTS;
+                        break;
+                    default:
+                        throw new IllegalArgumentException(args[index]);
+                }
+            }
+        } catch (RuntimeException e) {
+            index = args.length;  // Print usage
+        }
+
+        if (args.length - index < 1 || historyLimit <= 0) {
+            System.err.println(
+                    "Usage: bot.tools.Backtest [--history n] [--cents] <records.csv> [assessments.txt]");
+            System.exit(1);
+        }
+
+        // Tune per batch, not on a timer
+        Backtest backtest = new Backtest(new Bot(false), historyLimit, amountDecimals);
+        long start = System.nanoTime();
+
+        try (BufferedReader reader = new BufferedReader(new FileReader(args[index]), 1 << 16);
+             BufferedWriter writer = args.length > index + 1
+                     ? new BufferedWriter(new FileWriter(args[index + 1]), 1 << 16) : null) {
+            backtest.run(reader, writer);
+        }
+
+        backtest.printSummary(System.nanoTime() - start);
+    }
+}
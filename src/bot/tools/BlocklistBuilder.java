@@ -0,0 +1,112 @@
+/*
+ * Copyright 2018 riddles.io (developers@riddles.io)
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ *     For the full copyright and license information, please view the LICENSE
+ *     file that was distributed with this source code.
+ */
+
+
+package bot.tools;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.Arrays;
+
+import bot.blocklist.Blocklist;
+import bot.blocklist.BloomBlocklist;
+import bot.blocklist.SortedBlocklist;
+
+/**
+ * bot.tools.BlocklistBuilder
+ *
+ * Builds a blocklist file from a text file with one blocked value per line.
+ * By default a Bloom filter with a 0.1% false positive rate is built;
+ * use --fpp to change the rate, or --exact for a sorted list of keys.
+ *
+ * The bot maps the files named cardid.blocklist, emailid.blocklist and
+ * shopperipid.blocklist from the directory in the bot.blocklistDir
+ * system property.
+ */
+public class BlocklistBuilder {
+
+    private static final double DEFAULT_FALSE_POSITIVE_RATE = 0.001;
+
+    /**
+     * Main method
+     * @param args [--exact | --fpp rate] values.txt output.blocklist
+     */
+    public static void main(String[] args) throws IOException {
+        boolean exact = false;
+        double falsePositiveRate = DEFAULT_FALSE_POSITIVE_RATE;
+        int index = 0;
+
+        try {
+            for (; index < args.length && args[index].startsWith("--"); index++) {
+                switch (args[index]) {
+                    case "--exact":
+                        exact = true;
+                        break;
+                    case "--fpp":
+                        falsePositiveRate = Double.parseDouble(args[++index]);
+                        break;
+                    default:
+                        throw new IllegalArgumentException(args[index]);
+                }
+            }
+        } catch (RuntimeException e) {
+            index = args.length;  // Print usage
+        }
+
+        if (args.length - index != 2 || !(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            System.err.println(
+                    "Usage: bot.tools.BlocklistBuilder [--exact | --fpp rate] <values.txt> <output.blocklist>");
+            System.exit(1);
+        }
+
+        long[] keys = readKeys(args[index]);
+
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(args[index + 1]), 1 << 16))) {
+            if (exact) {
+                SortedBlocklist.write(keys, out);
+            } else {
+                BloomBlocklist.write(keys, falsePositiveRate, out);
+            }
+        }
+
+        System.out.println(String.format("Wrote %d values to %s", keys.length, args[index + 1]));
+    }
+
+    private static long[] readKeys(String path) throws IOException {
+        long[] keys = new long[1024];
+        int count = 0;
+
+        try (BufferedReader reader = new BufferedReader(new FileReader(path), 1 << 16)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.trim().isEmpty()) continue;
+
+                if (count == keys.length) keys = Arrays.copyOf(keys, count * 2);
+                keys[count++] = Blocklist.key(line);
+            }
+        }
+
+        return Arrays.copyOf(keys, count);
+    }
+}
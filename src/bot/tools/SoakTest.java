@@ -0,0 +1,293 @@
+/*
+ * Copyright 2018 riddles.io (developers@riddles.io)
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ *     For the full copyright and license information, please view the LICENSE
+ *     file that was distributed with this source code.
+ */
+
+
+package bot.tools;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.logging.ConsoleHandler;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.openmbean.CompositeData;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+import bot.Bot;
+import bot.Parser;
+
+/**
+ * bot.tools.SoakTest
+ *
+ * Runs a long generated transcript (see TranscriptGenerator) through the
+ * Parser and Bot in this process, to catch memory growth and latency
+ * regressions that the short test input never shows.
+ *
+ * After every interval of records it prints the live heap (heap in use
+ * right after the last garbage collection), the number of stop-the-world
+ * GC pauses in that interval with their p99 and maximum duration, and the
+ * latency percentiles of the "action record" lines. Pause durations come
+ * from the collectors' GC notifications; collectors that only report whole
+ * concurrent cycles (e.g. "ZGC Cycles") are left out, as their durations
+ * are not pauses. GC durations are whole milliseconds, so sub-millisecond
+ * pauses count as 0 ms. The output of the bot, the per-record output of
+ * the checks on stderr and log messages below WARNING are discarded;
+ * warnings and failures are still printed to stderr.
+ */
+public class SoakTest {
+
+    private static final int DEFAULT_INTERVAL = 100000;
+    private static final long NANOS_PER_MICRO = 1000;
+
+    private final PrintStream errors;
+    private final long[] latencies;
+    private final ConcurrentLinkedQueue<Long> pauses = new ConcurrentLinkedQueue<>();
+
+    private Parser parser;
+
+    private int latencyCount;
+    private long records;
+    private long start;
+    private long maxLatency;
+    private long maxPause;
+    private long firstLiveHeap = -1;
+    private long firstReportRecords;
+
+    public SoakTest(int interval, PrintStream errors) {
+        this.parser = new Parser(new Bot(), System.in, new PrintStream(new NullOutputStream()));
+        this.errors = errors;
+        this.latencies = new long[interval];
+        listenForPauses();
+    }
+
+    /**
+     * Feeds the whole transcript to the parser and prints a report line
+     * after every interval.
+     * @param generator Generator of the transcript
+     * @return False if the bot failed, e.g. by running out of memory
+     */
+    public boolean run(TranscriptGenerator generator) {
+        System.out.println("records,seconds,live_heap_mb,gc_pauses,gc_p99_ms,gc_max_ms,p50_us,p99_us,p999_us,max_us");
+
+        this.start = System.nanoTime();
+        try {
+            generator.generate(this::feed);
+        } catch (Throwable e) {
+            this.parser = null;  // Release the bot state, so there is memory left to report an OutOfMemoryError
+            this.errors.println(String.format("Soak test failed after %d records", this.records));
+            e.printStackTrace(this.errors);
+            return false;
+        }
+
+        if (this.latencyCount > 0) report();
+
+        System.out.println(String.format("Max action latency: %d us", this.maxLatency / NANOS_PER_MICRO));
+        System.out.println(String.format("Max GC pause: %d ms", this.maxPause));
+        if (this.records > this.firstReportRecords) {
+            System.out.println(String.format("Live heap growth: %.1f MB per million records",
+                    (getLiveHeap() - this.firstLiveHeap) / 1048576.0
+                            / (this.records - this.firstReportRecords) * 1000000));
+        }
+
+        return true;
+    }
+
+    private void feed(String line) {
+        if (!line.startsWith("action record")) {
+            this.parser.parseLine(line);
+            return;
+        }
+
+        long before = System.nanoTime();
+        this.parser.parseLine(line);
+        long latency = System.nanoTime() - before;
+
+        this.records++;
+        this.latencies[this.latencyCount++] = latency;
+        this.maxLatency = Math.max(this.maxLatency, latency);
+
+        if (this.latencyCount == this.latencies.length) {
+            report();
+        }
+    }
+
+    private void report() {
+        long[] pauses = drainPauses();
+        Arrays.sort(pauses);
+        long maxPause = pauses.length > 0 ? pauses[pauses.length - 1] : 0;
+        this.maxPause = Math.max(this.maxPause, maxPause);
+
+        long liveHeap = getLiveHeap();
+        if (this.firstLiveHeap < 0) {
+            this.firstLiveHeap = liveHeap;
+            this.firstReportRecords = this.records;
+        }
+
+        Arrays.sort(this.latencies, 0, this.latencyCount);
+
+        System.out.println(String.format("%d,%.1f,%.1f,%d,%d,%d,%d,%d,%d,%d",
+                this.records,
+                (System.nanoTime() - this.start) / 1e9,
+                liveHeap / 1048576.0,
+                pauses.length,
+                percentile(pauses, pauses.length, 0.99),
+                maxPause,
+                percentile(this.latencies, this.latencyCount, 0.5) / NANOS_PER_MICRO,
+                percentile(this.latencies, this.latencyCount, 0.99) / NANOS_PER_MICRO,
+                percentile(this.latencies, this.latencyCount, 0.999) / NANOS_PER_MICRO,
+                this.latencies[this.latencyCount - 1] / NANOS_PER_MICRO));
+
+        this.latencyCount = 0;
+    }
+
+    /**
+     * Subscribes to the GC notifications of every collector that stops the
+     * world, adding the duration of each collection to the pause queue.
+     * Notifications arrive on a JMX thread, hence the concurrent queue.
+     */
+    private void listenForPauses() {
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (!(collector instanceof NotificationEmitter) || isConcurrentCycles(collector.getName())) {
+                continue;
+            }
+
+            ((NotificationEmitter) collector).addNotificationListener(this::onGarbageCollection, null, null);
+        }
+    }
+
+    private void onGarbageCollection(Notification notification, Object handback) {
+        if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+            return;
+        }
+
+        GarbageCollectionNotificationInfo info =
+                GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+        this.pauses.add(info.getGcInfo().getDuration());
+    }
+
+    private static boolean isConcurrentCycles(String collectorName) {
+        return collectorName.endsWith("Cycles") || collectorName.equals("ConcurrentMarkSweep");
+    }
+
+    private long[] drainPauses() {
+        long[] drained = new long[this.pauses.size()];
+        int count = 0;
+
+        Long pause;
+        while (count < drained.length && (pause = this.pauses.poll()) != null) {
+            drained[count++] = pause;
+        }
+
+        return Arrays.copyOf(drained, count);
+    }
+
+    private static long percentile(long[] sorted, int count, double fraction) {
+        if (count == 0) return 0;
+        int index = (int) Math.ceil(fraction * count) - 1;
+
+        return sorted[Math.max(0, index)];
+    }
+
+    private static long getLiveHeap() {
+        long used = 0;
+
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            MemoryUsage afterGc = pool.getCollectionUsage();
+            if (pool.getType() == MemoryType.HEAP && afterGc != null) {
+                used += afterGc.getUsed();
+            }
+        }
+
+        return used;
+    }
+
+    /**
+     * Main method
+     * @param args [--seed n] [--interval n] records
+     */
+    public static void main(String[] args) {
+        long seed = 0;
+        int interval = DEFAULT_INTERVAL;
+        long records = -1;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--seed":
+                        seed = Long.parseLong(args[++i]);
+                        break;
+                    case "--interval":
+                        interval = Integer.parseInt(args[++i]);
+                        break;
+                    default:
+                        records = Long.parseLong(args[i]);
+                }
+            }
+        } catch (RuntimeException e) {
+            records = -1;
+        }
+
+        if (records < 0 || interval <= 0) {
+            System.err.println("Usage: bot.tools.SoakTest [--seed n] [--interval n] <records>");
+            System.exit(1);
+        }
+
+        // Checks print and log every record, which would dominate the measurements,
+        // so only keep warnings and failures on the real stderr
+        PrintStream errors = System.err;
+
+        Logger rootLogger = Logger.getLogger("");
+        for (Handler handler : rootLogger.getHandlers()) {
+            rootLogger.removeHandler(handler);
+        }
+        Handler warnings = new ConsoleHandler();  // Writes to the current System.err
+        warnings.setLevel(Level.WARNING);
+        rootLogger.addHandler(warnings);
+
+        Thread.setDefaultUncaughtExceptionHandler((thread, e) -> {
+            errors.println(String.format("Uncaught exception in thread '%s'", thread.getName()));
+            e.printStackTrace(errors);
+        });
+        System.setErr(new PrintStream(new NullOutputStream()));
+
+        if (!new SoakTest(interval, errors).run(new TranscriptGenerator(seed, records))) {
+            System.exit(1);
+        }
+    }
+
+    private static class NullOutputStream extends OutputStream {
+
+        @Override
+        public void write(int b) {}
+
+        @Override
+        public void write(byte[] b, int off, int len) {}
+    }
+}
@@ -0,0 +1,251 @@
+/*
+ * Copyright 2018 riddles.io (developers@riddles.io)
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ *     For the full copyright and license information, please view the LICENSE
+ *     file that was distributed with this source code.
+ */
+
+
+package bot.tools;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.util.Random;
+import java.util.function.Consumer;
+
+/**
+ * bot.tools.TranscriptGenerator
+ *
+ * Generates a synthetic engine transcript: the settings, followed by an
+ * "update ... next_record" and an "action record" line per record, in the
+ * same record_format as test/test_input.txt. The same seed always gives
+ * the same transcript, and lines are streamed, so any length can be made.
+ *
+ * Records come from a population of shoppers that scales with the length
+ * of the transcript, where a few shoppers make many transactions. About
+ * 2% of the records come from fraud rings, which share a handful of
+ * emails and IPs, use many new cards with high amounts and arrive in bursts.
+ */
+public class TranscriptGenerator {
+
+    private static final String RECORD_FORMAT = "date,acquirer,issuercountrycode,displayabletxvariantcode,"
+            + "txvariantcode,bin,amount,currency,eur_amount,shopperinteraction,"
+            + "cardverificationcodesupplied,cardid,emailid,shopperipid,shopperreferenceid";
+
+    private static final String[] COUNTRIES = {"GB", "GB", "GB", "FR", "DE", "NL", "SE", "US", "MX", "AU"};
+    private static final String[] CURRENCIES = {"GBP", "GBP", "GBP", "EUR", "EUR", "EUR", "SEK", "USD", "MXN", "AUD"};
+    private static final int[] EUR_RATES = {13850, 13850, 13850, 10000, 10000, 10000, 1060, 8900, 470, 6600};
+    private static final String[][] VARIANTS = {
+            {"visa", "visadebit"}, {"visa", "visaclassic"}, {"visa", "visacredit"},
+            {"mc", "mccredit"}, {"mc", "mcdebit"}, {"amex", "amex"}
+    };
+    private static final int[] ACQUIRERS = {43991, 43992, 43993};
+
+    private static final double FRAUD_BURST_CHANCE = 0.002;
+    private static final int SHOPPERS_PER_RECORD_DIVISOR = 4;
+    private static final long RING_ID_OFFSET = 1L << 40;
+
+    private final Random random;
+    private final long records;
+    private final long shoppers;
+    private final int rings;
+
+    private long time = 1443657600L;  // 2015-10-01 00:00 UTC
+    private int burstRing;
+    private int burstRemaining;
+    private long ringCards;
+
+    public TranscriptGenerator(long seed, long records) {
+        this.random = new Random(seed);
+        this.records = records;
+        this.shoppers = Math.max(1, records / SHOPPERS_PER_RECORD_DIVISOR);
+        this.rings = (int) Math.max(1, records / 100000);
+    }
+
+    /**
+     * Generates the whole transcript.
+     * @param sink Receives the lines in order
+     */
+    public void generate(Consumer<String> sink) {
+        sink.accept("settings player_names player1");
+        sink.accept("settings your_bot player1");
+        sink.accept("settings timebank 10000");
+        sink.accept("settings time_per_move 500");
+        sink.accept("settings max_checkpoints 10");
+        sink.accept("settings record_format " + RECORD_FORMAT);
+        sink.accept("action checkpoints 10000");
+
+        StringBuilder builder = new StringBuilder(256);
+        for (long i = 0; i < this.records; i++) {
+            builder.setLength(0);
+            builder.append("update player1 next_record ");
+            appendRecord(builder);
+
+            sink.accept(builder.toString());
+            sink.accept("action record 500");
+        }
+    }
+
+    private void appendRecord(StringBuilder builder) {
+        this.time += 1 + (long) (-Math.log(1 - this.random.nextDouble()) * 20);
+
+        if (this.burstRemaining == 0 && this.random.nextDouble() < FRAUD_BURST_CHANCE) {
+            this.burstRing = this.random.nextInt(this.rings);
+            this.burstRemaining = 5 + this.random.nextInt(20);
+        }
+
+        if (this.burstRemaining > 0 && this.random.nextBoolean()) {
+            this.burstRemaining--;
+            appendFraudRecord(builder);
+        } else {
+            appendShopperRecord(builder);
+        }
+    }
+
+    private void appendShopperRecord(StringBuilder builder) {
+        // Squaring a uniform number makes low shopper ids much more common
+        double uniform = this.random.nextDouble();
+        long shopper = (long) (uniform * uniform * this.shoppers);
+        long hash = mix(shopper);
+
+        int country = (int) ((hash >>> 8) % COUNTRIES.length);
+        String[] variant = VARIANTS[(int) ((hash >>> 16) % VARIANTS.length)];
+        long eurCents = (long) (Math.exp(3.5 + this.random.nextGaussian()) * 100);
+
+        appendFields(builder, country, variant, 400000 + (hash >>> 24) % 200000, eurCents,
+                this.random.nextDouble() < 0.95,
+                shopper,                                   // card
+                Math.max(0, shopper - (hash >>> 32) % 3),  // shared family emails
+                (shopper + (this.random.nextInt(8) == 0 ? this.random.nextInt(16) : 0)) / 2,  // ip
+                shopper);
+    }
+
+    private void appendFraudRecord(StringBuilder builder) {
+        int ring = this.burstRing;
+        long hash = mix(RING_ID_OFFSET + ring);
+
+        int country = (int) ((hash >>> 8) % COUNTRIES.length);
+        String[] variant = VARIANTS[this.random.nextInt(VARIANTS.length)];
+        long eurCents = (long) (Math.exp(5.5 + 0.5 * this.random.nextGaussian()) * 100);
+
+        appendFields(builder, country, variant, 400000 + this.random.nextInt(200000), eurCents,
+                this.random.nextDouble() < 0.4,
+                RING_ID_OFFSET + this.ringCards++,          // a new card every time
+                RING_ID_OFFSET + ring * 4 + this.random.nextInt(4),
+                RING_ID_OFFSET + ring * 2 + this.random.nextInt(2),
+                RING_ID_OFFSET + ring);
+    }
+
+    private void appendFields(StringBuilder builder, int country, String[] variant, long bin,
+                              long eurCents, boolean cvcSupplied, long card, long email, long ip,
+                              long shopperReference) {
+        long amount = eurCents * 100 / EUR_RATES[country];  // Whole units, like test_input.txt
+
+        appendDate(builder);
+        builder.append(',').append(ACQUIRERS[(int) (Math.abs(card) % ACQUIRERS.length)])
+                .append(',').append(COUNTRIES[country])
+                .append(',').append(variant[0])
+                .append(',').append(variant[1])
+                .append(',').append(bin)
+                .append(',').append(amount)
+                .append(',').append(CURRENCIES[country])
+                .append(',').append(eurCents / 100).append('.');
+        if (eurCents % 100 < 10) builder.append('0');
+        builder.append(eurCents % 100)
+                .append(',').append(this.random.nextInt(50) == 0 ? "ContAuth" : "Ecommerce")
+                .append(',').append(cvcSupplied ? "TRUE" : "FALSE")
+                .append(',').append(card)
+                .append(',').append(email)
+                .append(',').append(ip)
+                .append(',').append(shopperReference);
+    }
+
+    private void appendDate(StringBuilder builder) {
+        // Format "M/d/yy HH:mm" without creating date objects
+        long days = this.time / 86400;
+        int minutes = (int) (this.time % 86400 / 60);
+
+        // Civil from days, see http://howardhinnant.github.io/date_algorithms.html
+        long z = days + 719468;
+        long era = z / 146097;
+        long dayOfEra = z - era * 146097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long monthPart = (5 * dayOfYear + 2) / 153;
+        long day = dayOfYear - (153 * monthPart + 2) / 5 + 1;
+        long month = monthPart < 10 ? monthPart + 3 : monthPart - 9;
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+
+        builder.append(month).append('/').append(day).append('/');
+        appendTwoDigits(builder, (int) (year % 100));
+        builder.append(' ');
+        appendTwoDigits(builder, minutes / 60);
+        builder.append(':');
+        appendTwoDigits(builder, minutes % 60);
+    }
+
+    private static void appendTwoDigits(StringBuilder builder, int value) {
+        builder.append((char) ('0' + value / 10)).append((char) ('0' + value % 10));
+    }
+
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+
+        return value & Long.MAX_VALUE;
+    }
+
+    /**
+     * Main method, writes the transcript to stdout.
+     * @param args [--seed n] records
+     */
+    public static void main(String[] args) throws IOException {
+        long seed = 0;
+        long records = -1;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].equals("--seed")) {
+                    seed = Long.parseLong(args[++i]);
+                } else {
+                    records = Long.parseLong(args[i]);
+                }
+            }
+        } catch (RuntimeException e) {
+            records = -1;
+        }
+
+        if (records < 0) {
+            System.err.println("Usage: bot.tools.TranscriptGenerator [--seed n] <records>");
+            System.exit(1);
+        }
+
+        try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(System.out), 1 << 16)) {
+            new TranscriptGenerator(seed, records).generate(line -> {
+                try {
+                    writer.write(line);
+                    writer.newLine();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+}
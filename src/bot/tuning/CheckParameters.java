@@ -0,0 +1,90 @@
+/*
+ * Copyright 2018 riddles.io (developers@riddles.io)
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ *     For the full copyright and license information, please view the LICENSE
+ *     file that was distributed with this source code.
+ */
+
+
+package bot.tuning;
+
+import java.util.Arrays;
+
+/**
+ * bot.tuning.CheckParameters
+ *
+ * Immutable snapshot of the tuned check thresholds, indexed by check id.
+ * A new instance is created for every update, so a reader holding a
+ * reference always sees one complete and consistent set of parameters.
+ */
+public final class CheckParameters {
+
+    public static final CheckParameters EMPTY = new CheckParameters(new long[0]);
+
+    private static final long UNSET = Long.MIN_VALUE;
+
+    private final long[] thresholds;
+
+    private CheckParameters(long[] thresholds) {
+        this.thresholds = thresholds;
+    }
+
+    /**
+     * Gets the threshold for the given check.
+     * @param checkId Id of the check
+     * @param fallback Value to return if no threshold is set for the check
+     * @return The threshold of the check, or the fallback value
+     */
+    public long getThreshold(int checkId, long fallback) {
+        if (checkId < 0 || checkId >= this.thresholds.length) {
+            return fallback;
+        }
+
+        long threshold = this.thresholds[checkId];
+
+        return threshold == UNSET ? fallback : threshold;
+    }
+
+    /**
+     * Creates a copy of these parameters with the threshold of the given
+     * check replaced. This instance is not modified.
+     * @param checkId Id of the check
+     * @param threshold New threshold
+     * @return New parameters
+     */
+    public CheckParameters withThreshold(int checkId, long threshold) {
+        long[] copy = Arrays.copyOf(this.thresholds, Math.max(this.thresholds.length, checkId + 1));
+
+        for (int i = this.thresholds.length; i < copy.length; i++) {
+            copy[i] = UNSET;
+        }
+        copy[checkId] = threshold;
+
+        return new CheckParameters(copy);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+
+        for (int i = 0; i < this.thresholds.length; i++) {
+            if (this.thresholds[i] == UNSET) continue;
+            if (builder.length() > 0) builder.append(",");
+            builder.append(i).append("=").append(this.thresholds[i]);
+        }
+
+        return builder.toString();
+    }
+}
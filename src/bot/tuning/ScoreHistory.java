@@ -0,0 +1,95 @@
+/*
+ * Copyright 2018 riddles.io (developers@riddles.io)
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ *     For the full copyright and license information, please view the LICENSE
+ *     file that was distributed with this source code.
+ */
+
+
+package bot.tuning;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * bot.tuning.ScoreHistory
+ *
+ * Fixed size ring buffer of the most recent scores a check has computed.
+ * There must be a single writer (the assessment thread), which never blocks
+ * and never allocates. Any other thread can take a snapshot at any time.
+ */
+public class ScoreHistory {
+
+    private final AtomicLongArray scores;
+    private final AtomicLong count;
+
+    public ScoreHistory(int capacity) {
+        this.scores = new AtomicLongArray(capacity);
+        this.count = new AtomicLong();
+    }
+
+    /**
+     * Adds a score to the history, overwriting the oldest score
+     * if the history is full. Must only be called by the writing thread.
+     * @param score Score to add
+     */
+    public void record(long score) {
+        long index = this.count.get();
+
+        this.scores.lazySet((int) (index % this.scores.length()), score);
+        this.count.lazySet(index + 1);
+    }
+
+    /**
+     * Adds the first length scores of the array to the history, in order.
+     * Must only be called by the writing thread.
+     * @param scores Scores to add
+     * @param length Amount of scores to add
+     */
+    public void recordAll(long[] scores, int length) {
+        long index = this.count.get();
+        int capacity = this.scores.length();
+
+        for (int i = Math.max(0, length - capacity); i < length; i++) {
+            this.scores.lazySet((int) ((index + i) % capacity), scores[i]);
+        }
+        this.count.lazySet(index + length);
+    }
+
+    /**
+     * Gets the total amount of scores recorded so far, including the ones
+     * that were already overwritten.
+     * @return Amount of scores recorded
+     */
+    public long getCount() {
+        return this.count.get();
+    }
+
+    /**
+     * Copies the scores currently in the history. The scores are not in
+     * any particular order, and may include scores recorded while copying.
+     * @return Copy of the recorded scores
+     */
+    public long[] snapshot() {
+        int size = (int) Math.min(this.count.get(), this.scores.length());
+        long[] snapshot = new long[size];
+
+        for (int i = 0; i < size; i++) {
+            snapshot[i] = this.scores.get(i);
+        }
+
+        return snapshot;
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2018 riddles.io (developers@riddles.io)
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ *     For the full copyright and license information, please view the LICENSE
+ *     file that was distributed with this source code.
+ */
+
+
+package bot.tuning;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import bot.checkpoint.AbstractCheck;
+import bot.checkpoint.AbstractTunableCheck;
+
+/**
+ * bot.tuning.ThresholdTuner
+ *
+ * Periodically recomputes the thresholds of all tunable checks on a
+ * background thread, so that each check rejects approximately its target
+ * fraction of the recently seen records.
+ *
+ * New thresholds are published by swapping in a new CheckParameters instance,
+ * so the assessment thread can read them without ever blocking.
+ */
+public class ThresholdTuner {
+
+    private static final Logger log = Logger.getLogger(ThresholdTuner.class.getSimpleName());
+
+    private static final int MIN_SAMPLES = 100;
+
+    private final AtomicReference<CheckParameters> parameters;
+
+    private List<AbstractTunableCheck> checks;
+    private ScheduledExecutorService executor;
+
+    public ThresholdTuner(List<? extends AbstractCheck> checks) {
+        this.parameters = new AtomicReference<>(CheckParameters.EMPTY);
+        this.setChecks(checks);
+    }
+
+    /**
+     * Replaces the checks that are tuned. Checks that keep the id of a
+     * previous check also keep its current threshold, new ones start at
+     * their initial threshold.
+     * @param checks A list of all checks, the ones that are not tunable are ignored
+     */
+    public synchronized void setChecks(List<? extends AbstractCheck> checks) {
+        ArrayList<AbstractTunableCheck> tunableChecks = new ArrayList<>();
+        CheckParameters current = this.parameters.get();
+        CheckParameters updated = current;
+
+        for (AbstractCheck check : checks) {
+            if (check instanceof AbstractTunableCheck) {
+                AbstractTunableCheck tunableCheck = (AbstractTunableCheck) check;
+                long threshold = current.getThreshold(
+                        tunableCheck.getId(), tunableCheck.getInitialThreshold());
+
+                tunableChecks.add(tunableCheck);
+                updated = updated.withThreshold(tunableCheck.getId(), threshold);
+            }
+        }
+
+        this.checks = tunableChecks;
+        this.parameters.set(updated);
+    }
+
+    /**
+     * Gets the most recently published parameters. Never blocks.
+     * @return Current check parameters
+     */
+    public CheckParameters getParameters() {
+        return this.parameters.get();
+    }
+
+    /**
+     * Starts tuning periodically on a background daemon thread.
+     * @param intervalMillis Time in ms between the end of one tuning
+     *                       round and the start of the next
+     */
+    public synchronized void start(long intervalMillis) {
+        if (this.executor != null) return;
+
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "threshold-tuner");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        this.executor.scheduleWithFixedDelay(
+                this::tuneSafely, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the background tuning. The current parameters stay published.
+     */
+    public synchronized void stop() {
+        if (this.executor == null) return;
+
+        this.executor.shutdownNow();
+        this.executor = null;
+    }
+
+    /**
+     * Recomputes the threshold of every tunable check that has enough
+     * recorded scores and publishes the result as one new set of parameters.
+     */
+    public synchronized void tune() {
+        CheckParameters current = this.parameters.get();
+        CheckParameters updated = current;
+
+        for (AbstractTunableCheck check : this.checks) {
+            long[] scores = check.getScoreHistory().snapshot();
+
+            if (scores.length < MIN_SAMPLES) continue;
+
+            long threshold = computeThreshold(scores, check.getTargetRejectionRate());
+
+            if (threshold != current.getThreshold(check.getId(), check.getInitialThreshold())) {
+                updated = updated.withThreshold(check.getId(), threshold);
+            }
+        }
+
+        if (updated != current) {
+            this.parameters.set(updated);
+            log.info(String.format("Published new check thresholds: %s", updated));
+        }
+    }
+
+    /**
+     * Computes the lowest threshold for which at most the target fraction
+     * of the given scores is higher than the threshold.
+     * @param scores Recorded scores, will be sorted in place
+     * @param targetRejectionRate Fraction of records that should be rejected
+     * @return The threshold
+     */
+    private static long computeThreshold(long[] scores, double targetRejectionRate) {
+        Arrays.sort(scores);
+
+        int index = (int) Math.ceil((1.0 - targetRejectionRate) * scores.length) - 1;
+
+        return scores[Math.max(0, Math.min(scores.length - 1, index))];
+    }
+
+    private void tuneSafely() {
+        try {
+            tune();
+        } catch (RuntimeException e) {
+            log.log(Level.WARNING, "Tuning check thresholds failed", e);
+        }
+    }
+}
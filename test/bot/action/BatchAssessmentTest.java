@@ -0,0 +1,168 @@
+/*
+ * Copyright 2018 riddles.io (developers@riddles.io)
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ *     For the full copyright and license information, please view the LICENSE
+ *     file that was distributed with this source code.
+ */
+
+
+package bot.action;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import bot.RiskSystemState;
+import bot.checkpoint.AbstractCheck;
+import bot.checkpoint.BatchCheck;
+import bot.data.PaymentRecord;
+import bot.data.RecordBatch;
+
+public class BatchAssessmentTest {
+
+    private static final String[] FORMAT = {"txid", "amount"};
+    private static final int RECORDS = 10;
+
+    /**
+     * Per-record check that remembers the history it saw and rejects
+     * when the previous record was rejected by the batch check.
+     */
+    private static class HistoryCheck extends AbstractCheck {
+
+        private final ArrayList<String> seen = new ArrayList<>();
+
+        HistoryCheck(int id) {
+            super(id);
+        }
+
+        @Override
+        public String getDescription() {
+            return "Remembers history";
+        }
+
+        @Override
+        public boolean rejectRecord(RiskSystemState state) {
+            ArrayList<Assessment> assessments = state.getAssessments();
+
+            this.seen.add(String.format("%s:%d:%d", state.getCurrentRecord().getData("txid"),
+                    state.getRecords().size(), assessments.size()));
+
+            return !assessments.isEmpty()
+                    && assessments.get(assessments.size() - 1).toString().contains("0");
+        }
+    }
+
+    /**
+     * Batch check that rejects every third record.
+     */
+    private static class EveryThirdCheck extends AbstractCheck implements BatchCheck {
+
+        private int counter = 0;
+
+        EveryThirdCheck(int id) {
+            super(id);
+        }
+
+        @Override
+        public String getDescription() {
+            return "Rejects every third record";
+        }
+
+        @Override
+        public boolean rejectRecord(RiskSystemState state) {
+            return this.counter++ % 3 == 0;
+        }
+
+        @Override
+        public boolean[] rejectRecords(RecordBatch batch, RiskSystemState state) {
+            boolean[] rejected = new boolean[batch.size()];
+
+            for (int i = 0; i < rejected.length; i++) {
+                rejected[i] = this.counter++ % 3 == 0;
+            }
+
+            return rejected;
+        }
+    }
+
+    private static ArrayList<PaymentRecord> createRecords() {
+        ArrayList<PaymentRecord> records = new ArrayList<>();
+
+        for (int i = 0; i < RECORDS; i++) {
+            records.add(new PaymentRecord(FORMAT, i + ",100"));
+        }
+
+        return records;
+    }
+
+    @Test
+    public void perRecordCheckSeesSameHistoryAsInMatch() {
+        ArrayList<PaymentRecord> records = createRecords();
+
+        // Match: one record and one assessment at a time
+        HistoryCheck matchCheck = new HistoryCheck(1);
+        ArrayList<AbstractCheck> matchChecks = new ArrayList<>(Arrays.asList(new EveryThirdCheck(0), matchCheck));
+        RiskSystemState matchState = new RiskSystemState();
+        ArrayList<String> matchOutput = new ArrayList<>();
+
+        for (PaymentRecord record : records) {
+            matchState.addRecord(record);
+
+            Assessment assessment = new Assessment();
+            assessment.assessRecord(matchChecks, matchState);
+            matchState.storeAssessment(assessment);
+            matchOutput.add(assessment.toString());
+        }
+
+        // Batches of 3, sharing one state
+        HistoryCheck batchCheck = new HistoryCheck(1);
+        ArrayList<AbstractCheck> batchChecks = new ArrayList<>(Arrays.asList(new EveryThirdCheck(0), batchCheck));
+        RiskSystemState batchState = new RiskSystemState();
+        ArrayList<String> batchOutput = new ArrayList<>();
+
+        for (int start = 0; start < records.size(); start += 3) {
+            RecordBatch batch = new RecordBatch(records.subList(start, Math.min(start + 3, records.size())));
+            BatchAssessment assessment = new BatchAssessment();
+            assessment.assessRecords(batchChecks, batch, batchState);
+
+            for (int i = 0; i < assessment.size(); i++) {
+                batchOutput.add(assessment.toString(i));
+            }
+        }
+
+        assertEquals(matchCheck.seen, batchCheck.seen);
+        assertEquals(matchOutput, batchOutput);
+        assertEquals(RECORDS, batchState.getRecords().size());
+        assertEquals(RECORDS, batchState.getAssessments().size());
+    }
+
+    @Test
+    public void historyLimitBoundsState() {
+        RiskSystemState state = new RiskSystemState();
+        state.setHistoryLimit(4);
+
+        ArrayList<AbstractCheck> checks = new ArrayList<>(Arrays.asList(new EveryThirdCheck(0), new HistoryCheck(1)));
+        BatchAssessment assessment = new BatchAssessment();
+        assessment.assessRecords(checks, new RecordBatch(createRecords()), state);
+
+        assertTrue(state.getRecords().size() >= 4 && state.getRecords().size() < 8);
+        assertTrue(state.getAssessments().size() >= 4 && state.getAssessments().size() < 8);
+        assertEquals(String.valueOf(RECORDS - 1), state.getCurrentRecord().getData("txid"));
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2018 riddles.io (developers@riddles.io)
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ *     For the full copyright and license information, please view the LICENSE
+ *     file that was distributed with this source code.
+ */
+
+
+package bot.blocklist;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BlocklistTest {
+
+    private static final int KEYS = 10000;
+
+    @Test
+    public void sortedBlocklistContainsExactlyItsValues() throws IOException {
+        Blocklist blocklist = Blocklist.map(writeSorted(keys("card-", KEYS)));
+
+        for (int i = 0; i < KEYS; i++) {
+            assertTrue(blocklist.contains("card-" + i));
+            assertFalse(blocklist.contains("other-" + i));
+        }
+    }
+
+    @Test
+    public void emptySortedBlocklistContainsNothing() throws IOException {
+        Blocklist blocklist = Blocklist.map(writeSorted(new long[0]));
+
+        assertFalse(blocklist.contains("card-0"));
+    }
+
+    @Test
+    public void bloomBlocklistContainsItsValues() throws IOException {
+        Blocklist blocklist = Blocklist.map(writeBloom(keys("card-", KEYS), 0.01));
+
+        for (int i = 0; i < KEYS; i++) {
+            assertTrue(blocklist.contains("card-" + i));
+        }
+    }
+
+    @Test
+    public void bloomBlocklistKeepsFalsePositiveRate() throws IOException {
+        Blocklist blocklist = Blocklist.map(writeBloom(keys("card-", KEYS), 0.01));
+
+        int tries = 10 * KEYS;
+        int falsePositives = 0;
+        for (int i = 0; i < tries; i++) {
+            if (blocklist.contains("other-" + i)) falsePositives++;
+        }
+
+        // Allow twice the wanted rate, the keys of a single run are not perfectly random
+        assertTrue("false positives: " + falsePositives, falsePositives < 0.02 * tries);
+    }
+
+    @Test
+    public void emptyBloomBlocklistCanBeMapped() throws IOException {
+        Blocklist blocklist = Blocklist.map(writeBloom(new long[0], 0.01));
+
+        assertFalse(blocklist.contains("card-0"));
+    }
+
+    @Test
+    public void keyIgnoresSurroundingWhitespace() {
+        long key = Blocklist.key("card-42");
+
+        assertEquals(key, Blocklist.key(" card-42"));
+        assertEquals(key, Blocklist.key("card-42\r"));
+        assertEquals(key, Blocklist.key("\t card-42 \n"));
+        assertEquals(Blocklist.key(""), Blocklist.key("   "));
+        assertTrue(key != Blocklist.key("card 42"));
+    }
+
+    @Test
+    public void untrimmedValueMatchesTrimmedEntry() throws IOException {
+        Blocklist blocklist = Blocklist.map(writeSorted(new long[] {Blocklist.key("card-42")}));
+
+        assertTrue(blocklist.contains("card-42 "));
+    }
+
+    @Test(expected = IOException.class)
+    public void mapRejectsBloomLengthThatIsNoWholeWord() throws IOException {
+        Blocklist.map(writeList(Blocklist.TYPE_BLOOM, 3, 100, new long[1]));
+    }
+
+    @Test(expected = IOException.class)
+    public void mapRejectsEmptyBloom() throws IOException {
+        Blocklist.map(writeList(Blocklist.TYPE_BLOOM, 3, 0, new long[0]));
+    }
+
+    @Test(expected = IOException.class)
+    public void mapRejectsBloomWithoutHashes() throws IOException {
+        Blocklist.map(writeList(Blocklist.TYPE_BLOOM, 0, Long.SIZE, new long[1]));
+    }
+
+    @Test(expected = IOException.class)
+    public void mapRejectsTruncatedSortedList() throws IOException {
+        Blocklist.map(writeList(Blocklist.TYPE_SORTED, 0, 2, new long[1]));
+    }
+
+    @Test(expected = IOException.class)
+    public void mapRejectsOtherFiles() throws IOException {
+        File file = createTempFile();
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write("txid,amount,currency\n".getBytes("US-ASCII"));
+        }
+
+        Blocklist.map(file);
+    }
+
+    private static long[] keys(String prefix, int count) {
+        long[] keys = new long[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = Blocklist.key(prefix + i);
+        }
+
+        return keys;
+    }
+
+    private static File writeBloom(long[] keys, double falsePositiveRate) throws IOException {
+        File file = createTempFile();
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(file))) {
+            BloomBlocklist.write(keys, falsePositiveRate, out);
+        }
+
+        return file;
+    }
+
+    private static File writeSorted(long[] keys) throws IOException {
+        File file = createTempFile();
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(file))) {
+            SortedBlocklist.write(keys, out);
+        }
+
+        return file;
+    }
+
+    private static File writeList(int type, int hashCount, long length, long[] words)
+            throws IOException {
+        File file = createTempFile();
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(file))) {
+            Blocklist.writeHeader(out, type, hashCount, length);
+            for (long word : words) {
+                out.writeLong(word);
+            }
+        }
+
+        return file;
+    }
+
+    private static File createTempFile() throws IOException {
+        File file = File.createTempFile("blocklist", ".bin");
+        file.deleteOnExit();
+
+        return file;
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2018 riddles.io (developers@riddles.io)
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ *     For the full copyright and license information, please view the LICENSE
+ *     file that was distributed with this source code.
+ */
+
+
+package bot.data;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CurrencyConverterTest {
+
+    @Test
+    public void convertsWithPackagedRates() {
+        CurrencyConverter converter = CurrencyConverter.getDefault();
+
+        assertEquals(7618, converter.toEuroCents(5500, converter.getCurrencyId("GBP")));  // 7617.5
+        assertEquals(1234, converter.toEuroCents(1234, converter.getCurrencyId("EUR")));
+    }
+
+    @Test
+    public void loadsRatesFile() throws IOException {
+        CurrencyConverter converter = CurrencyConverter.load(
+                writeRates("# code,euro per unit\nGBP,1.5\nUSD, 0.9\nnot a rate\nJPY,x\nXX,1\n"));
+
+        int gbp = converter.getCurrencyId("GBP");
+        int usd = converter.getCurrencyId("USD");
+
+        assertEquals(15000, converter.toEuroCents(10000, gbp));
+        assertEquals(9000, converter.toEuroCents(10000, usd));
+        assertEquals(-9000, converter.toEuroCents(-10000, usd));
+        assertEquals(100, converter.toEuroCents(100, converter.getCurrencyId("EUR")));
+        assertEquals("GBP", converter.getCurrencyCode(gbp));
+        assertEquals(CurrencyConverter.UNKNOWN_CURRENCY, converter.getCurrencyId("JPY"));
+    }
+
+    @Test
+    public void unknownCodesAreNotAdded() {
+        CurrencyConverter converter = new CurrencyConverter();
+
+        assertEquals(CurrencyConverter.UNKNOWN_CURRENCY, converter.getCurrencyId("XYZ"));
+        assertEquals(CurrencyConverter.UNKNOWN_CURRENCY, converter.getCurrencyId("XYZ"));
+        assertEquals(CurrencyConverter.UNKNOWN_CURRENCY, converter.getCurrencyId("gbp"));
+        assertEquals(CurrencyConverter.UNKNOWN_CURRENCY, converter.getCurrencyId("GB"));
+        assertEquals(CurrencyConverter.UNKNOWN_CURRENCY, converter.getCurrencyId(null));
+        assertEquals(CurrencyConverter.UNKNOWN_AMOUNT,
+                converter.toEuroCents(100, CurrencyConverter.UNKNOWN_CURRENCY));
+        assertTrue(converter.getCurrencyId("EUR") >= 0);
+    }
+
+    @Test
+    public void missingFileOnlyConvertsEuros() {
+        CurrencyConverter converter = CurrencyConverter.load(
+                new File("no-such-dir", "rates.csv").getPath());
+
+        assertEquals(100, converter.toEuroCents(100, converter.getCurrencyId("EUR")));
+        assertEquals(CurrencyConverter.UNKNOWN_CURRENCY, converter.getCurrencyId("GBP"));
+    }
+
+    private static String writeRates(String rates) throws IOException {
+        File file = File.createTempFile("rates", ".csv");
+        file.deleteOnExit();
+        Files.write(file.toPath(), rates.getBytes(StandardCharsets.UTF_8));
+
+        return file.getPath();
+    }
+}
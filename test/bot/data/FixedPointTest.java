@@ -0,0 +1,105 @@
+/*
+ * Copyright 2018 riddles.io (developers@riddles.io)
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ *     For the full copyright and license information, please view the LICENSE
+ *     file that was distributed with this source code.
+ */
+
+
+package bot.data;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class FixedPointTest {
+
+    @Test
+    public void parsesAtScale() {
+        assertEquals(7617, FixedPoint.parse("76.17", 2));
+        assertEquals(1385000, FixedPoint.parse("1.385", 6));
+        assertEquals(55, FixedPoint.parse("55", 0));
+    }
+
+    @Test
+    public void padsMissingDecimals() {
+        assertEquals(7610, FixedPoint.parse("76.1", 2));
+        assertEquals(7600, FixedPoint.parse("76", 2));
+        assertEquals(7600, FixedPoint.parse("76.", 2));
+        assertEquals(50, FixedPoint.parse(".5", 2));
+    }
+
+    @Test
+    public void roundsExtraDecimalsHalfUp() {
+        assertEquals(7617, FixedPoint.parse("76.1749", 2));
+        assertEquals(7618, FixedPoint.parse("76.175", 2));
+        assertEquals(100, FixedPoint.parse("0.995", 2));
+        assertEquals(77, FixedPoint.parse("76.5", 0));
+    }
+
+    @Test
+    public void parsesSign() {
+        assertEquals(-7617, FixedPoint.parse("-76.17", 2));
+        assertEquals(7617, FixedPoint.parse("+76.17", 2));
+        assertEquals(-7618, FixedPoint.parse("-76.175", 2));
+    }
+
+    @Test
+    public void parsesLargestValue() {
+        assertEquals(Long.MAX_VALUE, FixedPoint.parse("92233720368547758.07", 2));
+        assertEquals(Long.MAX_VALUE, FixedPoint.parse("9223372036854775807", 0));
+        assertEquals(-Long.MAX_VALUE, FixedPoint.parse("-92233720368547758.07", 2));
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void rejectsOverflowingDigits() {
+        FixedPoint.parse("92233720368547758.08", 2);
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void rejectsOverflowingPadding() {
+        FixedPoint.parse("92233720368547759", 2);
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void rejectsOverflowingRounding() {
+        FixedPoint.parse("92233720368547758.075", 2);
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void rejectsEmpty() {
+        FixedPoint.parse("", 2);
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void rejectsSignOnly() {
+        FixedPoint.parse("-", 2);
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void rejectsSecondDecimalPoint() {
+        FixedPoint.parse("1.2.3", 2);
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void rejectsLetters() {
+        FixedPoint.parse("12a", 2);
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void rejectsExponents() {
+        FixedPoint.parse("1e3", 2);
+    }
+}
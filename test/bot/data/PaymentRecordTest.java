@@ -0,0 +1,63 @@
+/*
+ * Copyright 2018 riddles.io (developers@riddles.io)
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ *     For the full copyright and license information, please view the LICENSE
+ *     file that was distributed with this source code.
+ */
+
+
+package bot.data;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class PaymentRecordTest {
+
+    private static final String[] FORMAT = {"txid", "amount", "currency"};
+
+    @Test
+    public void wholeUnitAmountsAreStoredInCents() {
+        PaymentRecord record = new PaymentRecord(FORMAT, "1,55,GBP");
+
+        assertEquals(5500, record.getAmount());
+        assertEquals(7618, record.getEurAmount());
+    }
+
+    @Test
+    public void centAmountsAreStoredAsIs() {
+        PaymentRecord record = new PaymentRecord(FORMAT, PaymentRecord.CENTS, "1,5500,GBP");
+
+        assertEquals(5500, record.getAmount());
+        assertEquals(7618, record.getEurAmount());
+    }
+
+    @Test
+    public void eurAmountFieldIsUsedWhenPresent() {
+        String[] format = {"amount", "currency", "eur_amount"};
+        PaymentRecord record = new PaymentRecord(format, "55,GBP,76.17");
+
+        assertEquals(5500, record.getAmount());
+        assertEquals(7617, record.getEurAmount());
+    }
+
+    @Test
+    public void unknownCurrencyHasUnknownEurAmount() {
+        PaymentRecord record = new PaymentRecord(FORMAT, "1,55,XYZ");
+
+        assertEquals(CurrencyConverter.UNKNOWN_CURRENCY, record.getCurrencyId());
+        assertEquals(CurrencyConverter.UNKNOWN_AMOUNT, record.getEurAmount());
+    }
+}